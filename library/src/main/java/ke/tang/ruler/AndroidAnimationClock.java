@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * {@link AnimationClock} locked to the Choreographer frame time while a frame is animated, so
+ * positions are sampled at the time the frame is shown rather than at the time it happens to be
+ * computed. Outside of a frame it reads {@link System#nanoTime()}, the time base of the frame times.
+ */
+class AndroidAnimationClock implements AnimationClock {
+    private final static long NO_FRAME = Long.MIN_VALUE;
+
+    private long mFrameTimeNanos = NO_FRAME;
+
+    void beginFrame(long frameTimeNanos) {
+        mFrameTimeNanos = frameTimeNanos;
+    }
+
+    void endFrame() {
+        mFrameTimeNanos = NO_FRAME;
+    }
+
+    @Override
+    public long currentAnimationTimeMillis() {
+        return currentAnimationTimeNanos() / 1000000L;
+    }
+
+    @Override
+    public long currentAnimationTimeNanos() {
+        return NO_FRAME != mFrameTimeNanos ? mFrameTimeNanos : System.nanoTime();
+    }
+}
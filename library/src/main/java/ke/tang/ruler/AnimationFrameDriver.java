@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.os.Build;
+import android.support.annotation.RequiresApi;
+import android.support.v4.view.ViewCompat;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+/**
+ * Runs scroll animations one display frame at a time and keeps track of the achieved cadence.
+ * <p>
+ * Frames are timed by {@link Choreographer} vsync timestamps on API 16+, the clock is locked to
+ * that timestamp while the callback runs so each position is sampled for the moment the frame is
+ * presented, evenly spaced at any refresh rate. Older platforms fall back to
+ * {@link ViewCompat#postOnAnimation(View, Runnable)} timed by {@link System#nanoTime()}.
+ */
+class AnimationFrameDriver {
+    interface Callback {
+        /**
+         * @return true if another frame is needed
+         */
+        boolean doAnimationFrame();
+    }
+
+    private final static float DEFAULT_REFRESH_RATE = 60;
+    /**
+     * Weight of the latest interval in the moving average of the frame interval
+     */
+    private final static float AVERAGE_WEIGHT = 0.2f;
+
+    private final View mView;
+    private final AndroidAnimationClock mClock;
+    private final Callback mCallback;
+    private final Runnable mFallbackFrame = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+    private FrameCallbackCompat mFrameCallback;
+
+    private boolean mRunning;
+    private float mRefreshRate = DEFAULT_REFRESH_RATE;
+    private long mLastFrameTimeNanos;
+    private long mFrameIntervalNanos;
+    private float mAverageFrameIntervalNanos;
+    private int mSkippedFrames;
+
+    AnimationFrameDriver(View view, AndroidAnimationClock clock, Callback callback) {
+        mView = view;
+        mClock = clock;
+        mCallback = callback;
+    }
+
+    /**
+     * Schedules the next frame, does nothing if the animation is already running
+     */
+    void start() {
+        if (mRunning) {
+            return;
+        }
+        mRunning = true;
+        mLastFrameTimeNanos = 0;
+        mFrameIntervalNanos = 0;
+        mSkippedFrames = 0;
+        updateRefreshRate();
+        scheduleFrame();
+    }
+
+    void stop() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        if (null != mFrameCallback) {
+            mFrameCallback.cancel();
+        } else {
+            mView.removeCallbacks(mFallbackFrame);
+        }
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Reads the refresh rate of the display the view is on, it can change at runtime on devices
+     * switching between refresh rates
+     */
+    void updateRefreshRate() {
+        final Display display = ViewCompat.getDisplay(mView);
+        final float refreshRate = null != display ? display.getRefreshRate() : 0;
+        mRefreshRate = refreshRate >= 1 ? refreshRate : DEFAULT_REFRESH_RATE;
+    }
+
+    /**
+     * @return refresh rate of the display in Hz
+     */
+    float getRefreshRate() {
+        return mRefreshRate;
+    }
+
+    /**
+     * @return time between the latest two animation frames in nanoseconds, 0 before the second frame
+     */
+    long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * @return display frames missed between the latest two animation frames
+     */
+    int getSkippedFrames() {
+        return mSkippedFrames;
+    }
+
+    /**
+     * @return moving average of the achieved animation frame rate in Hz, 0 before the first interval
+     * was measured
+     */
+    float getFrameRate() {
+        return mAverageFrameIntervalNanos > 0 ? 1000000000f / mAverageFrameIntervalNanos : 0;
+    }
+
+    private void scheduleFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (null == mFrameCallback) {
+                mFrameCallback = new FrameCallbackCompat(this);
+            }
+            mFrameCallback.post();
+        } else {
+            ViewCompat.postOnAnimation(mView, mFallbackFrame);
+        }
+    }
+
+    void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        if (mLastFrameTimeNanos > 0 && frameTimeNanos > mLastFrameTimeNanos) {
+            final long interval = frameTimeNanos - mLastFrameTimeNanos;
+            final float vsyncInterval = 1000000000f / mRefreshRate;
+            mFrameIntervalNanos = interval;
+            mSkippedFrames = Math.max(0, Math.round(interval / vsyncInterval) - 1);
+            //A frame late by whole vsyncs is jank, not cadence, it must not move the average
+            final float sample = Math.min(interval, vsyncInterval * 1.5f);
+            mAverageFrameIntervalNanos = mAverageFrameIntervalNanos > 0
+                    ? mAverageFrameIntervalNanos + AVERAGE_WEIGHT * (sample - mAverageFrameIntervalNanos) : sample;
+        } else {
+            mFrameIntervalNanos = 0;
+            mSkippedFrames = 0;
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        mClock.beginFrame(frameTimeNanos);
+        final boolean more;
+        try {
+            more = mCallback.doAnimationFrame();
+        } finally {
+            mClock.endFrame();
+        }
+        if (more && mRunning) {
+            scheduleFrame();
+        } else {
+            mRunning = false;
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static class FrameCallbackCompat implements Choreographer.FrameCallback {
+        private final AnimationFrameDriver mDriver;
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        FrameCallbackCompat(AnimationFrameDriver driver) {
+            mDriver = driver;
+        }
+
+        void post() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        void cancel() {
+            mChoreographer.removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mDriver.doFrame(frameTimeNanos);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+public interface OnRulerFrameMetricsListener {
+    /**
+     * 每一帧绘制完成后回调
+     *
+     * @param rulerView 标尺
+     * @param metrics   本帧的统计数据，该对象会在下一帧复用
+     */
+    void onFrameMetrics(RulerView rulerView, RulerFrameMetrics metrics);
+}
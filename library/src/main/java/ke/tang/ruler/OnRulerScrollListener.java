@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 标尺滚动状态回调，适合把耗时的工作推迟到值稳定之后，只需要重写关心的方法
+ *
+ * @see RulerView#addOnRulerScrollListener(OnRulerScrollListener)
+ */
+public abstract class OnRulerScrollListener {
+    /**
+     * 滚动状态变化回调
+     *
+     * @param rulerView 标尺
+     * @param newState  {@link RulerView#SCROLL_STATE_IDLE}，{@link RulerView#SCROLL_STATE_DRAGGING}或{@link RulerView#SCROLL_STATE_SETTLING}
+     */
+    public void onScrollStateChanged(RulerView rulerView, @RulerView.ScrollState int newState) {
+    }
+
+    /**
+     * 值稳定后回调，即拖动、Fling与吸附到刻度全部结束，或者通过{@link RulerView#setValueLong(long)}设置了新的值。
+     * 与上一次稳定的值相同时不回调
+     *
+     * @param rulerView 标尺
+     * @param value     稳定后的值
+     */
+    public void onValueSettled(RulerView rulerView, long value) {
+    }
+}
@@ -16,13 +16,16 @@
 package ke.tang.ruler;
 
 /**
- * 当标尺的值变化时的回调接口
+ * 当标尺的值变化时的回调接口，值没有变化时不会回调
+ *
+ * @see OnRulerValueListener
+ * @see RulerView#setValueNotifyInterval(long)
  */
 public interface OnRulerValueChangeListener {
     /**
      * 标尺值变化回调
      *
-     * @param value        当前标尺的值
+     * @param value        当前标尺的值，超出int范围时饱和，完整的值通过{@link RulerView#getValueLong()}获取
      * @param displayValue 当前标尺显示的值（格式化后）
      * @see RulerValueFormatter
      */
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 只携带原始数值的值变化回调，只在值真正变化时回调，不会为每次回调格式化显示文本
+ *
+ * @see RulerView#addOnRulerValueListener(OnRulerValueListener, java.util.concurrent.Executor)
+ * @see RulerView#setValueNotifyInterval(long)
+ */
+public interface OnRulerValueListener {
+    /**
+     * 标尺值变化回调，需要显示文本时通过{@link RulerView#getFormatValue()}获取
+     *
+     * @param rulerView 标尺
+     * @param value     当前标尺的值
+     */
+    void onRulerValueChanged(RulerView rulerView, long value);
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 标尺每一帧的耗时与工作量统计，同一个实例会在每一帧复用，如需保留请自行拷贝数据
+ *
+ * @see RulerView#setFrameMetricsListener(OnRulerFrameMetricsListener)
+ */
+public final class RulerFrameMetrics {
+    /**
+     * 绘制耗时分布的区间上限（毫秒），最后一个区间统计所有超过{@code 32ms}的帧
+     */
+    public final static int[] DRAW_DURATION_BUCKETS_MILLIS = {1, 2, 4, 8, 16, 32};
+
+    private long mDrawDurationNanos;
+    private long mComputeScrollDurationNanos;
+    private long mPendingComputeScrollDurationNanos;
+    private int mTicksDrawn;
+    private int mTilesDrawn;
+    private int mLabelsFormatted;
+    private int mMarkersDrawn;
+    private int mFlingFrameCount;
+    private int mLastFlingFrameCount;
+    private long mFrameIntervalNanos;
+    private long mPendingFrameIntervalNanos;
+
+    private long mFrameCount;
+    private long mTotalDrawDurationNanos;
+    private long mMaxDrawDurationNanos;
+    private long mAnimationFrameCount;
+    private long mTotalFrameIntervalNanos;
+    private long mSkippedFrameCount;
+    private final int[] mDrawDurationHistogram = new int[DRAW_DURATION_BUCKETS_MILLIS.length + 1];
+
+    RulerFrameMetrics() {
+    }
+
+    /**
+     * @return 最近一帧{@code onDraw}的耗时，单位纳秒
+     */
+    public long getDrawDurationNanos() {
+        return mDrawDurationNanos;
+    }
+
+    /**
+     * @return 最近一帧中推进滚动动画（原{@code computeScroll}）的耗时，单位纳秒
+     */
+    public long getComputeScrollDurationNanos() {
+        return mComputeScrollDurationNanos;
+    }
+
+    /**
+     * @return 最近一帧直接绘制的刻度数量
+     */
+    public int getTicksDrawn() {
+        return mTicksDrawn;
+    }
+
+    /**
+     * @return 最近一帧绘制的刻度分块数量，仅{@link RulerView#RENDER_MODE_TILED}模式下有效
+     */
+    public int getTilesDrawn() {
+        return mTilesDrawn;
+    }
+
+    /**
+     * @return 最近一帧中需要重新格式化的刻度文本数量
+     */
+    public int getLabelsFormatted() {
+        return mLabelsFormatted;
+    }
+
+    /**
+     * @return 最近一帧绘制的Marker数量
+     */
+    public int getMarkersDrawn() {
+        return mMarkersDrawn;
+    }
+
+    /**
+     * @return 当前惯性滑动已经产生的帧数，没有惯性滑动时为0
+     */
+    public int getFlingFrameCount() {
+        return mFlingFrameCount;
+    }
+
+    /**
+     * @return 上一次完成的惯性滑动产生的帧数
+     */
+    public int getLastFlingFrameCount() {
+        return mLastFlingFrameCount;
+    }
+
+    /**
+     * @return 最近一帧与上一个滚动动画帧之间的间隔，单位纳秒，按{@code Choreographer}的帧时间计算，不在滚动动画中时为0
+     */
+    public long getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * @return 自上次{@link #reset()}以来滚动动画帧的平均间隔，单位纳秒，与屏幕刷新间隔一致说明动画没有掉帧
+     */
+    public long getAverageFrameIntervalNanos() {
+        return 0 == mAnimationFrameCount ? 0 : mTotalFrameIntervalNanos / mAnimationFrameCount;
+    }
+
+    /**
+     * @return 自上次{@link #reset()}以来滚动动画中错过的屏幕刷新次数，按当前屏幕刷新率计算
+     * @see RulerView#getDisplayRefreshRate()
+     */
+    public long getSkippedFrameCount() {
+        return mSkippedFrameCount;
+    }
+
+    /**
+     * @return 自上次{@link #reset()}以来统计的帧数
+     */
+    public long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return 自上次{@link #reset()}以来{@code onDraw}的平均耗时，单位纳秒
+     */
+    public long getAverageDrawDurationNanos() {
+        return 0 == mFrameCount ? 0 : mTotalDrawDurationNanos / mFrameCount;
+    }
+
+    /**
+     * @return 自上次{@link #reset()}以来{@code onDraw}的最大耗时，单位纳秒
+     */
+    public long getMaxDrawDurationNanos() {
+        return mMaxDrawDurationNanos;
+    }
+
+    /**
+     * 获取{@code onDraw}耗时分布，第i个元素为耗时不超过{@link #DRAW_DURATION_BUCKETS_MILLIS}[i]的帧数
+     *
+     * @param out 长度至少为{@code DRAW_DURATION_BUCKETS_MILLIS.length + 1}的数组
+     * @return out
+     */
+    public int[] getDrawDurationHistogram(int[] out) {
+        System.arraycopy(mDrawDurationHistogram, 0, out, 0, mDrawDurationHistogram.length);
+        return out;
+    }
+
+    /**
+     * 清空累计的统计数据
+     */
+    public void reset() {
+        mFrameCount = 0;
+        mTotalDrawDurationNanos = 0;
+        mMaxDrawDurationNanos = 0;
+        mAnimationFrameCount = 0;
+        mTotalFrameIntervalNanos = 0;
+        mSkippedFrameCount = 0;
+        for (int index = 0; index < mDrawDurationHistogram.length; index++) {
+            mDrawDurationHistogram[index] = 0;
+        }
+    }
+
+    void beginFrame() {
+        //The animation frame callback runs right before onDraw, its cost belongs to the frame being drawn
+        mComputeScrollDurationNanos = mPendingComputeScrollDurationNanos;
+        mPendingComputeScrollDurationNanos = 0;
+        mFrameIntervalNanos = mPendingFrameIntervalNanos;
+        mPendingFrameIntervalNanos = 0;
+        mTicksDrawn = 0;
+        mTilesDrawn = 0;
+        mLabelsFormatted = 0;
+        mMarkersDrawn = 0;
+    }
+
+    void endFrame(long drawDurationNanos) {
+        mDrawDurationNanos = drawDurationNanos;
+        mFrameCount++;
+        mTotalDrawDurationNanos += drawDurationNanos;
+        mMaxDrawDurationNanos = Math.max(mMaxDrawDurationNanos, drawDurationNanos);
+        final long drawDurationMillis = drawDurationNanos / 1000000;
+        int bucket = 0;
+        while (bucket < DRAW_DURATION_BUCKETS_MILLIS.length && drawDurationMillis >= DRAW_DURATION_BUCKETS_MILLIS[bucket]) {
+            bucket++;
+        }
+        mDrawDurationHistogram[bucket]++;
+    }
+
+    void addTicksDrawn(int count) {
+        mTicksDrawn += count;
+    }
+
+    void addTileDrawn() {
+        mTilesDrawn++;
+    }
+
+    void addLabelsFormatted(int count) {
+        mLabelsFormatted += count;
+    }
+
+    void addMarkerDrawn() {
+        mMarkersDrawn++;
+    }
+
+    void addComputeScrollDuration(long durationNanos) {
+        mPendingComputeScrollDurationNanos += durationNanos;
+    }
+
+    void addAnimationFrame(long frameIntervalNanos, int skippedFrames) {
+        if (frameIntervalNanos > 0) {
+            mPendingFrameIntervalNanos = frameIntervalNanos;
+            mAnimationFrameCount++;
+            mTotalFrameIntervalNanos += frameIntervalNanos;
+            mSkippedFrameCount += skippedFrames;
+        }
+    }
+
+    void addFlingFrame() {
+        mFlingFrameCount++;
+    }
+
+    void endFling() {
+        if (mFlingFrameCount > 0) {
+            mLastFlingFrameCount = mFlingFrameCount;
+            mFlingFrameCount = 0;
+        }
+    }
+}
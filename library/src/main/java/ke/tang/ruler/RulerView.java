@@ -15,51 +15,120 @@
  */
 package ke.tang.ruler;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
+import android.os.Handler;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.support.annotation.ColorInt;
 import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
+import android.support.annotation.IntDef;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.v4.content.ContextCompat;
+import android.support.v4.view.ViewCompat;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.util.TypedValue;
 import android.view.MotionEvent;
-import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewDebug;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 public class RulerView extends View {
-    public final static int MAX_VALUE = 10000;
+    public final static int MAX_VALUE = ScaleModel.MAX_VALUE;
+    /**
+     * 每一帧直接绘制所有可见刻度
+     */
+    public final static int RENDER_MODE_DIRECT = 0;
+    /**
+     * 将刻度预先绘制到按区间对齐的位图分块中，每一帧只绘制可见的分块
+     */
+    public final static int RENDER_MODE_TILED = 1;
+    /**
+     * 将可见刻度的坐标收集到复用的数组中，按长短刻度分两批绘制，刻度对齐到像素且不使用抗锯齿
+     */
+    public final static int RENDER_MODE_BATCHED = 2;
+
+    /**
+     * 没有滚动，值已经稳定
+     */
+    public final static int SCROLL_STATE_IDLE = 0;
+    /**
+     * 手指正在拖动或缩放标尺
+     */
+    public final static int SCROLL_STATE_DRAGGING = 1;
+    /**
+     * 手指离开后的Fling、吸附到刻度或者缩放动画
+     */
+    public final static int SCROLL_STATE_SETTLING = 2;
+
+    /**
+     * 值每次变化都立即回调
+     */
+    public final static long NOTIFY_IMMEDIATELY = 0;
+    /**
+     * 每帧最多回调一次，回调前的多次变化合并为一次
+     */
+    public final static long NOTIFY_PER_FRAME = -1;
     private final static int STATE_IDLE = 0;
     private final static int STATE_PINCH = 1;
     private final static int STATE_SCROLL = 2;
     private final static int STATE_FLING = 3;
     private final static int STATE_RESET = 4;
-    private int mStepWidth;
+    /**
+     * Content offsets are relative to a movable origin value, once the offset drifts further than
+     * this the origin is moved next to it so every float in the drawing math stays exact
+     */
+    private final static int REBASE_DISTANCE = 1 << 20;
+    /**
+     * Minimum free space between two drawn ticks and between two labels, in dp
+     */
+    private final static int MIN_TICK_GAP_DIP = 2;
+    private final static int MIN_LABEL_GAP_DIP = 8;
+    private final static int DEFAULT_MAX_ZOOM_STEP_WIDTH_DIP = 200;
+    private final static int ZOOM_TO_FIT_DURATION = 300;
+    /**
+     * Snapping to the nearest tick takes this long per dp of distance, up to MAX_SNAP_DURATION
+     */
+    private final static int SNAP_DURATION_PER_DIP = 20;
+    private final static int MAX_SNAP_DURATION = 250;
+    /**
+     * Smooth scrolls further than this many view widths skip ahead and only scroll the last
+     * TELEPORT_SCROLL_WIDTHS, fading the strip in over TELEPORT_FADE_DURATION
+     */
+    private final static int TELEPORT_DISTANCE_WIDTHS = 3;
+    private final static int TELEPORT_SCROLL_WIDTHS = 1;
+    private final static int TELEPORT_FADE_DURATION = 150;
+    private ScaleModel mScaleModel = new LinearScaleModel();
     private RulerValueFormatter mRulerValueFormatter;
     private ColorStateList mScaleColor;
     private ColorStateList mRulerColor;
@@ -71,34 +140,101 @@ public class RulerView extends View {
     private int mScaleSize;
     private int mRulerSize;
 
-    @IntRange(from = 0, to = MAX_VALUE)
-    private int mMaxValue;
-    @IntRange(from = 0, to = MAX_VALUE)
-    private int mMinValue;
-    @IntRange(from = 0, to = MAX_VALUE)
-    private int mValue;
+    private long mValue;
 
     private float mTextSize;
     private ColorStateList mScaleTextColor;
     private OnRulerValueChangeListener mOnRulerValueChangeListener;
+    private final List<ValueListenerDispatcher> mValueListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Runs deliveries right on the notifying thread
+     */
+    private final static Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+    private long mNotifiedValue;
+    private boolean mValueNotified;
+    private long mNotifyInterval = NOTIFY_IMMEDIATELY;
+    private long mLastNotifyTime;
+    private boolean mNotifyPending;
+    private final Runnable mNotifyRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mNotifyPending = false;
+            dispatchValueChanged();
+        }
+    };
     private OverScroller mScroller;
     private int mContentOffset;
     private int mMaxContentOffset;
     private int mMinContentOffset;
     private Paint mRulerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private TextPaint mScaleLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private TextPaint mScaleLabelPaint;
     private TextPaint mLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
     private Paint mCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private Paint mTickPaint = new Paint();
+    private float[] mMinorTickLines = new float[0];
+    private float[] mMajorTickLines = new float[0];
+    private long[] mTickValues = new long[0];
+    private int[] mTickOffsets = new int[0];
+    private long mFirstVisibleValue;
+    private long mLastVisibleValue = -1;
+    private float mMinTickGap;
+    private float mMinLabelGap;
+    private float mDensity;
+    private long mTickStride = 1;
+    private long mLabelStride = 1;
+    private float mMinLabelRight;
+    private float mMaxLabelLeft;
+    private float mLastLabelRight;
+    private boolean mMaxLabelWidthValid;
+    private float mMaxLabelWidth;
+    private ScaleTextStyle mTextStyle;
+    private boolean mTextStyleRetained;
+    private Typeface mTypeface;
+    private final ScaleLabelCache mLabelCache = new ScaleLabelCache();
+    private boolean mGlyphAtlasEnabled;
+    private ScaleGlyphAtlas mGlyphAtlas;
+    @RenderMode
+    private int mRenderMode = RENDER_MODE_DIRECT;
+    private ScaleTileCache mTileCache = new ScaleTileCache(ScaleTileCache.DEFAULT_MAX_BYTES);
+    private int mTileScaleColor;
+    private int mTileTextColor;
+    private float mTileFontY;
+    private ScaleTileCache.TileRenderer mTileRenderer = new ScaleTileCache.TileRenderer() {
+        @Override
+        public void renderTile(Canvas canvas, int tileLeft, int tileWidth) {
+            final float margin = getMaxLabelWidth() / 2 + mScaleSize;
+            final long from = mScaleModel.getFirstVisibleValue(-tileLeft, margin);
+            final long to = mScaleModel.getLastVisibleValue(-tileLeft, tileWidth, margin);
+            drawScaleRange(canvas, -tileLeft, from, to, mTileFontY);
+        }
+    };
 
     private float mLastX;
     private float mDownX;
     private float mDownDistance;
     private float mLastDistance;
+    private ZoomController mZoomController = new ZoomController();
+    private ValueAnimator mZoomAnimator;
 
     private Paint.FontMetrics mFontMetrics;
-    private VelocityTracker mVelocityTracker = VelocityTracker.obtain();
+    private VelocityEstimator mVelocityEstimator = new VelocityEstimator();
+    private int mVelocityPointerId = -1;
 
     private int mState = STATE_IDLE;
+    @ScrollState
+    private int mScrollState = SCROLL_STATE_IDLE;
+    private long mSettledValue;
+    private boolean mValueSettled;
+    private boolean mSmoothScrolling;
+    private long mSmoothScrollTarget;
+    private boolean mFadingIn;
+    private long mFadeInStartNanos;
+    private List<OnRulerScrollListener> mScrollListeners = new ArrayList<>();
     private int mMinimumVelocity;
     private int mMaximumVelocity;
     private int mTouchSlop;
@@ -119,6 +255,32 @@ public class RulerView extends View {
     };
 
     private Rect mTempRect = new Rect();
+    private final AndroidAnimationClock mAnimationClock = new AndroidAnimationClock();
+    private final AnimationFrameDriver mFrameDriver = new AnimationFrameDriver(this, mAnimationClock, new AnimationFrameDriver.Callback() {
+        @Override
+        public boolean doAnimationFrame() {
+            return RulerView.this.doAnimationFrame();
+        }
+    });
+    /**
+     * Sub-pixel remainder of the animated content offset, the strip is drawn shifted by it
+     */
+    private float mContentOffsetFraction;
+    private Paint mTilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private int mStripBottom;
+    private int mStripScaleColor;
+    private int mStripTextColor;
+    private int mOverlayCircleColor;
+    private Rect mValueTextBounds = new Rect();
+    private LongRulerValueFormatter mValueTextFormatter = new DefaultRulerValueFormatter();
+    private char[] mValueText = new char[BufferedRulerValueFormatter.MAX_LENGTH];
+    private RulerFrameMetrics mFrameMetrics;
+    private OnRulerFrameMetricsListener mFrameMetricsListener;
+    private boolean mFrameMetricsEnabled;
+    private Bitmap mOverlay;
+    private Canvas mOverlayCanvas = new Canvas();
+    private Rect mOverlayBounds = new Rect();
+    private boolean mOverlayDirty = true;
     private RectF mTempRectF = new RectF();
     private int mMarkerHeight;
 
@@ -132,7 +294,7 @@ public class RulerView extends View {
 
     public RulerView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
-        mScroller = new OverScroller(context);
+        mScroller = new OverScroller(context.getResources().getDisplayMetrics().density, mAnimationClock);
         mScroller.setFriction(0.005f);
         setWillNotDraw(false);
 
@@ -142,9 +304,13 @@ public class RulerView extends View {
 
         final Resources resources = context.getResources();
         final DisplayMetrics displayMetrics = resources.getDisplayMetrics();
+        mDensity = displayMetrics.density;
+        mMinTickGap = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, MIN_TICK_GAP_DIP, displayMetrics);
+        mMinLabelGap = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, MIN_LABEL_GAP_DIP, displayMetrics);
+        mZoomController.setStepWidthRange(1, Math.max(1, TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_MAX_ZOOM_STEP_WIDTH_DIP, displayMetrics)));
         final TypedArray a = context.obtainStyledAttributes(
                 attrs, R.styleable.RulerView, defStyleAttr, R.style.Widget_RulerView);
-        mStepWidth = a.getDimensionPixelOffset(R.styleable.RulerView_stepWidth, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, displayMetrics));
+        mScaleModel.setStepWidth(a.getDimensionPixelOffset(R.styleable.RulerView_stepWidth, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, displayMetrics)));
 
         String valueFormatterClassName = a.getString(R.styleable.RulerView_rulerValueFormatter);
         if (!TextUtils.isEmpty(valueFormatterClassName)) {
@@ -167,74 +333,232 @@ public class RulerView extends View {
                 e.printStackTrace();
             }
         }
-
+        mLabelCache.setFormatter(mRulerValueFormatter);
 
         setScaleColor(a.getColor(R.styleable.RulerView_scaleColor, Color.BLACK));
         setRulerColor(a.getColor(R.styleable.RulerView_rulerColor, Color.BLACK));
         setCircleColor(a.getColor(R.styleable.RulerView_circleColor, Color.RED));
 
         mSectionScaleCount = a.getInt(R.styleable.RulerView_sectionScaleCount, 10);
-        mIndicator = a.getDrawable(R.styleable.RulerView_indicator);
+        setIndicator(a.getDrawable(R.styleable.RulerView_indicator));
         mScaleMinHeight = a.getDimensionPixelSize(R.styleable.RulerView_scaleMinHeight, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, displayMetrics));
         mScaleMaxHeight = a.getDimensionPixelSize(R.styleable.RulerView_scaleMaxHeight, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 20, displayMetrics));
 
         mRulerSize = a.getDimensionPixelSize(R.styleable.RulerView_rulerSize, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2, displayMetrics));
         mScaleSize = a.getDimensionPixelSize(R.styleable.RulerView_scaleSize, (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 2, displayMetrics));
-        mMaxValue = a.getInt(R.styleable.RulerView_maxValue, MAX_VALUE);
-        mMinValue = a.getInt(R.styleable.RulerView_minValue, 0);
-        if (mMaxValue < mMinValue) {
-            throw new IllegalArgumentException("最大值不能小于最小值");
-        }
-        mValue = a.getInt(R.styleable.RulerView_value, mMinValue);
-        if (mValue > mMaxValue || mValue < mMinValue) {
-            throw new IllegalArgumentException("值需要介于最小值(" + mMinValue + ")和最大值(" + mMaxValue + ")之间");
+        mScaleModel.setRange(a.getInt(R.styleable.RulerView_minValue, 0), a.getInt(R.styleable.RulerView_maxValue, MAX_VALUE));
+        mValue = a.getInt(R.styleable.RulerView_value, (int) mScaleModel.getMinValue());
+        if (mValue > mScaleModel.getMaxValue() || mValue < mScaleModel.getMinValue()) {
+            throw new IllegalArgumentException("值需要介于最小值(" + mScaleModel.getMinValue() + ")和最大值(" + mScaleModel.getMaxValue() + ")之间");
         }
 
-        mScaleLabelPaint.setTextAlign(Paint.Align.CENTER);
+        mLabelPaint.setTextSize(50);
+        mLabelPaint.setColor(Color.WHITE);
+        mLabelPaint.setTextAlign(Paint.Align.CENTER);
+        mTickPaint.setStyle(Paint.Style.STROKE);
+        mTickPaint.setStrokeCap(Paint.Cap.BUTT);
         setTextSize(a.getDimension(R.styleable.RulerView_android_textSize, TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 10, displayMetrics)));
         setTextColor(a.getColorStateList(R.styleable.RulerView_android_textColor));
-        setValue(mValue);
+        setValueLong(mValue);
+        setRenderMode(a.getInt(R.styleable.RulerView_renderMode, RENDER_MODE_DIRECT));
 
         a.recycle();
     }
 
     @Override
-    public void computeScroll() {
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        retainTextStyle();
+        mFrameDriver.updateRefreshRate();
+        if (!mScroller.isFinished()) {
+            mFrameDriver.start();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mFrameDriver.stop();
+        releaseTextStyle();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Switches to the shared style of the current text attributes, the style is retained only
+     * while the view is attached so detached views never keep a pooled style alive
+     */
+    private void updateTextStyle() {
+        final ScaleTextStyle oldStyle = mTextStyle;
+        if (null != oldStyle && oldStyle.hasAttributes(mTextSize, mTypeface)) {
+            return;
+        }
+        if (mTextStyleRetained) {
+            applyTextStyle(ScaleTextStyle.acquire(mTextSize, mTypeface));
+            oldStyle.release();
+        } else {
+            applyTextStyle(ScaleTextStyle.peek(mTextSize, mTypeface));
+        }
+    }
+
+    private void retainTextStyle() {
+        if (!mTextStyleRetained) {
+            //Picks up the pooled style if another ruler created one while this view was detached
+            applyTextStyle(ScaleTextStyle.acquire(mTextSize, mTypeface));
+            mTextStyleRetained = true;
+        }
+    }
+
+    private void releaseTextStyle() {
+        if (mTextStyleRetained) {
+            mTextStyle.release();
+            mTextStyleRetained = false;
+        }
+    }
+
+    private void applyTextStyle(ScaleTextStyle style) {
+        mTextStyle = style;
+        mScaleLabelPaint = style.getPaint();
+        mFontMetrics = style.getFontMetrics();
+        mLabelCache.setPaint(style.getPaint());
+        mGlyphAtlas = mGlyphAtlasEnabled ? style.getGlyphAtlas() : null;
+    }
+
+    /**
+     * Advances the scroll animation to the frame time the clock is locked to
+     *
+     * @return true if the animation needs another frame
+     */
+    private boolean doAnimationFrame() {
+        final RulerFrameMetrics metrics = mFrameMetrics;
+        if (null == metrics) {
+            return updateScroll();
+        }
+        final long startTime = System.nanoTime();
+        final boolean running = updateScroll();
+        metrics.addComputeScrollDuration(System.nanoTime() - startTime);
+        metrics.addAnimationFrame(mFrameDriver.getFrameIntervalNanos(), mFrameDriver.getSkippedFrames());
+        return running;
+    }
+
+    private boolean updateScroll() {
         if (mScroller.computeScrollOffset()) {
-            mContentOffset = mScroller.getCurrX();
-            mValue = getValueForContentOffset(mContentOffset);
-            notifyValueChanged();
-            invalidate();
+            final int contentOffset = mScroller.getCurrX();
+            final float fraction = mScroller.getCurrXFraction();
+            if (contentOffset != mContentOffset) {
+                mContentOffset = contentOffset;
+                mContentOffsetFraction = fraction;
+                mValue = getValueForContentOffset(contentOffset);
+                if (STATE_FLING == mState && null != mFrameMetrics) {
+                    mFrameMetrics.addFlingFrame();
+                }
+                notifyValueChanged();
+                invalidate();
+            } else if (fraction != mContentOffsetFraction) {
+                //Moved less than a pixel, only the sub-pixel position of the strip and markers changes
+                mContentOffsetFraction = fraction;
+                invalidate();
+            }
+            return true;
         } else {
+            mContentOffsetFraction = 0;
             if (needScrollToRoundValuePosition()) {
                 scrollToRoundedValue();
             } else if (STATE_FLING == mState || STATE_RESET == mState) {
-                mState = STATE_IDLE;
+                setState(STATE_IDLE);
+                if (null != mFrameMetrics) {
+                    mFrameMetrics.endFling();
+                }
+                rebaseContentOffset();
+                notifyValueSettled();
             }
+            return !mScroller.isFinished();
         }
     }
 
+    /**
+     * Notifies the listeners if the value differs from the last notified one, coalesced according
+     * to the notify interval
+     */
     private void notifyValueChanged() {
+        if (null == mOnRulerValueChangeListener && mValueListeners.isEmpty()) {
+            //Nobody listens, only remember the value so a later listener is not told about it
+            mNotifiedValue = mValue;
+            mValueNotified = true;
+            return;
+        }
+        if (mNotifyPending || (mValueNotified && mValue == mNotifiedValue)) {
+            return;
+        }
+        if (NOTIFY_IMMEDIATELY == mNotifyInterval) {
+            dispatchValueChanged();
+        } else if (NOTIFY_PER_FRAME == mNotifyInterval) {
+            mNotifyPending = true;
+            ViewCompat.postOnAnimation(this, mNotifyRunnable);
+        } else {
+            final long delay = mLastNotifyTime + mNotifyInterval - SystemClock.uptimeMillis();
+            if (delay <= 0) {
+                dispatchValueChanged();
+            } else {
+                mNotifyPending = true;
+                postDelayed(mNotifyRunnable, delay);
+            }
+        }
+    }
+
+    /**
+     * Notifies even if the value did not change, used when the display value changed
+     */
+    private void forceNotifyValueChanged() {
+        mValueNotified = false;
+        notifyValueChanged();
+    }
+
+    private void dispatchValueChanged() {
+        //The value may have gone back to the notified one while the notification was pending
+        if (mValueNotified && mValue == mNotifiedValue) {
+            return;
+        }
+        mNotifiedValue = mValue;
+        mValueNotified = true;
+        mLastNotifyTime = SystemClock.uptimeMillis();
         if (null != mOnRulerValueChangeListener) {
-            mOnRulerValueChangeListener.onRulerValueChanged(mValue, null != mRulerValueFormatter ? mRulerValueFormatter.formatValue(mValue) : String.valueOf(mValue));
+            mOnRulerValueChangeListener.onRulerValueChanged(clampToInt(mValue), getFormatValue());
+        }
+        for (ValueListenerDispatcher dispatcher : mValueListeners) {
+            dispatcher.dispatch(mValue);
         }
     }
 
     private void scrollToRoundedValue() {
-        int roundedValue = getRoundedValue(mContentOffset);
+        long roundedValue = getRoundedValue(mContentOffset);
+        final int distance = getContentOffsetForValue(roundedValue) - mContentOffset;
         mScroller.abortAnimation();
-        mScroller.startScroll(mContentOffset, 0, getContentOffsetForValue(roundedValue) - mContentOffset, 0, 800);
+        mScroller.startScroll(mContentOffset, 0, distance, 0, getSnapDuration(distance));
+        mFrameDriver.start();
         invalidate();
     }
 
-    private int getRoundedValue(int offset) {
-        return Math.max(mMinValue, Math.min(Math.round(offset * 1.0f / mStepWidth), mMaxValue));
+    /**
+     * @return duration proportional to the distance left to the tick, so short snaps end quickly
+     */
+    private int getSnapDuration(int distance) {
+        return (int) Math.min(MAX_SNAP_DURATION, Math.abs(distance) / mDensity * SNAP_DURATION_PER_DIP);
+    }
+
+    private long getRoundedValue(int offset) {
+        return mScaleModel.getValueForContentOffset(offset);
     }
 
     private boolean needScrollToRoundValuePosition() {
-        float currentValue = mContentOffset * 1.0f / mStepWidth;
-        int roundedValue = Math.round(currentValue);
-        return currentValue != roundedValue && (STATE_RESET == mState || STATE_FLING == mState);
+        return !mScaleModel.isOnTick(mContentOffset) && (STATE_RESET == mState || STATE_FLING == mState);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mTileCache.setTileSize(getSectionWidth(), h);
+        if (RENDER_MODE_BATCHED == mRenderMode) {
+            ensureTickBufferCapacity((int) (w / mScaleModel.getExactStepWidth()) + 3);
+        }
     }
 
     @Override
@@ -262,6 +586,23 @@ public class RulerView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        final RulerFrameMetrics metrics = mFrameMetrics;
+        if (null == metrics) {
+            drawRuler(canvas);
+            return;
+        }
+        metrics.beginFrame();
+        final long missCount = mLabelCache.getMissCount();
+        final long startTime = System.nanoTime();
+        drawRuler(canvas);
+        metrics.addLabelsFormatted((int) (mLabelCache.getMissCount() - missCount));
+        metrics.endFrame(System.nanoTime() - startTime);
+        if (null != mFrameMetricsListener) {
+            mFrameMetricsListener.onFrameMetrics(this, metrics);
+        }
+    }
+
+    private void drawRuler(Canvas canvas) {
         final int contentOffset = mContentOffset;
         final int paddingLeft = getPaddingLeft();
         final int paddingRight = getPaddingRight();
@@ -270,89 +611,80 @@ public class RulerView extends View {
         final int height = getHeight();
         final int insetWidth = width - paddingLeft - paddingRight;
         final int halfInsetWidth = insetWidth / 2;
-        final float scaleSize = mScaleSize;
-        final int maxScaleCount = mMaxValue;
-        final int minScaleCount = mMinValue;
         final int[] drawableState = getDrawableState();
 
-        mRulerPaint.setColor(mScaleColor.isStateful() ? mScaleColor.getColorForState(drawableState, Color.BLACK) : mScaleColor.getDefaultColor());
+        final int scaleColor = resolveColor(mScaleColor, drawableState);
+        mRulerPaint.setColor(scaleColor);
 
+        //The label paint is shared with the rulers of the same text style, set everything drawing depends on
         mScaleLabelPaint.setTextAlign(Paint.Align.CENTER);
-
-        //Draw scales forward and draw to the left border to stop
-        if (null != mScaleTextColor) {
-            mScaleLabelPaint.setColor(mScaleTextColor.getColorForState(drawableState, Color.BLACK));
+        mScaleLabelPaint.setColor(null != mScaleTextColor ? mScaleTextColor.getColorForState(drawableState, Color.BLACK) : Color.BLACK);
+
+        final int originX = paddingLeft + halfInsetWidth - contentOffset;
+        //Scroll animations place the strip between pixels, dragging always moves it by whole pixels
+        final float stripShift = mScroller.isFinished() ? 0 : -mContentOffsetFraction;
+        //While zooming the strip keeps the layout of the start of the zoom and is only transformed,
+        //the viewport is the part of that layout the transform maps onto the view
+        final ZoomController zoomController = mZoomController;
+        final boolean zooming = zoomController.isZooming();
+        final int viewportLeft = zooming ? (int) Math.floor(zoomController.toStartX(0)) : 0;
+        final int viewportWidth = zooming ? (int) Math.ceil(zoomController.toStartX(width)) - viewportLeft : width;
+        final int viewportOriginX = originX - viewportLeft;
+        computeVisibleRange(viewportOriginX, viewportWidth);
+        updateLevelOfDetail(mFirstVisibleValue, mLastVisibleValue, zooming ? zoomController.getScale() : 1);
+
+        final int indicatorHeight = null != mIndicator ? mIndicator.getIntrinsicHeight() : 0;
+        final float fontY = (height - indicatorHeight) / 2f - ((mScaleLabelPaint.descent() + mScaleLabelPaint.ascent()) / 2f) + indicatorHeight;
+        mStripBottom = (int) Math.ceil(Math.max(Math.max(mScaleMaxHeight, mScaleMinHeight), fontY + mScaleLabelPaint.descent()));
+        mStripScaleColor = scaleColor;
+        mStripTextColor = mScaleLabelPaint.getColor();
+        final int stripAlpha = getStripAlpha();
+        if (stripAlpha < 255) {
+            canvas.saveLayerAlpha(0, 0, width, height, stripAlpha, Canvas.ALL_SAVE_FLAG);
         }
-
-        //Draw indicator
-        final Drawable indicator = ContextCompat.getDrawable(getContext(), R.drawable.ic_cursor);
-        mIndicator = indicator;
-        if (indicator.isStateful()) {
-            indicator.setState(drawableState);
-        }
-        indicator.setBounds(
-                paddingLeft + halfInsetWidth - mIndicator.getIntrinsicWidth() / 2,
-                paddingTop,
-                paddingLeft + halfInsetWidth + mIndicator.getIntrinsicWidth() / 2,
-                indicator.getIntrinsicHeight()
-        );
-        indicator.draw(canvas);
-
-
-        final float fontY = (height - mIndicator.getIntrinsicHeight()) / 2f - ((mScaleLabelPaint.descent() + mScaleLabelPaint.ascent()) / 2f) + mIndicator.getIntrinsicHeight();
-        int count = contentOffset / mStepWidth;
-        for (int index = Math.min(count, maxScaleCount); index >= minScaleCount; index--) {
-            int scalePosition = index * mStepWidth;
-            final float centerX = paddingLeft + halfInsetWidth + scalePosition - contentOffset;
-            final float left = centerX - scaleSize / 2;
-            final float right = centerX + scaleSize / 2;
-            String label = null != mRulerValueFormatter ? mRulerValueFormatter.formatValue(index) : String.valueOf(index);
-            final float labelRight = centerX + mScaleLabelPaint.measureText(label) / 2;
-
-            if (labelRight > 0) {
-                if (0 == index % mSectionScaleCount || index == maxScaleCount || index == minScaleCount) {
-                    canvas.drawRect(left, 0, right, mScaleMaxHeight, mRulerPaint);
-                    canvas.drawText(label, centerX, fontY, mScaleLabelPaint);
-                } else {
-                    canvas.drawRect(left, 0, right, mScaleMinHeight, mRulerPaint);
-                }
-            } else {
-                break;
-            }
+        final boolean transformed = zooming || 0 != stripShift;
+        if (transformed) {
+            canvas.save();
+            canvas.translate(stripShift, 0);
         }
-
-        //Draw scales backwards, draw from marker to the right
-        for (int index = Math.max(minScaleCount, count); index <= maxScaleCount; index++) {
-            int scalePosition = index * mStepWidth;
-            final float centerX = paddingLeft + halfInsetWidth + scalePosition - contentOffset;
-            final float left = centerX - scaleSize / 2;
-            final float right = centerX + scaleSize / 2;
-            String label = null != mRulerValueFormatter ? mRulerValueFormatter.formatValue(index) : String.valueOf(index);
-            final float labelLeft = centerX - mScaleLabelPaint.measureText(label) / 2;
-            if (labelLeft < width) {
-                if (0 == index % mSectionScaleCount || index == maxScaleCount || index == minScaleCount) {
-                    canvas.drawRect(left, 0, right, mScaleMaxHeight, mRulerPaint);
-                    canvas.drawText(label, centerX, fontY, mScaleLabelPaint);
-                } else {
-                    canvas.drawRect(left, 0, right, mScaleMinHeight, mRulerPaint);
-                }
-            } else {
-                break;
+        if (zooming) {
+            canvas.translate(zoomController.toScreenX(viewportLeft), 0);
+            canvas.scale(zoomController.getScale(), 1);
+        }
+        if (RENDER_MODE_TILED == mRenderMode) {
+            final int textColor = mScaleLabelPaint.getColor();
+            if (scaleColor != mTileScaleColor || textColor != mTileTextColor || fontY != mTileFontY) {
+                mTileScaleColor = scaleColor;
+                mTileTextColor = textColor;
+                mTileFontY = fontY;
+                mTileCache.invalidate();
             }
+            drawScaleTiles(canvas, viewportOriginX, viewportWidth);
+        } else if (RENDER_MODE_BATCHED == mRenderMode) {
+            mTickPaint.setColor(scaleColor);
+            drawScalesBatched(canvas, viewportOriginX, mFirstVisibleValue, mLastVisibleValue, fontY);
+        } else {
+            drawScaleRange(canvas, viewportOriginX, mFirstVisibleValue, mLastVisibleValue, fontY);
+        }
+        if (transformed) {
+            canvas.restore();
         }
 
         //Drawing Marker
         if (!mMarkers.isEmpty()) {
             for (Marker marker : mMarkers) {
-                int scalePosition = marker.value() * mStepWidth;
+                int scalePosition = getContentOffsetForValue(marker.value());
                 marker.getBounds(mTempRect);
-                final float centerX = paddingLeft + halfInsetWidth + scalePosition - contentOffset;
+                final float centerX = (zooming ? zoomController.toScreenX(originX + scalePosition) : originX + scalePosition) + stripShift;
                 final float left = centerX - mTempRect.width() / 2f;
                 final float right = centerX + mTempRect.width() / 2f;
                 final float x = left, y = height - mMarkerHeight;
                 marker.setX(x);
                 marker.setY(y);
-                if (right > 0 || left < width) {
+                if (right > 0 && left < width) {
+                    if (null != mFrameMetrics) {
+                        mFrameMetrics.addMarkerDrawn();
+                    }
                     canvas.save();
                     canvas.translate(x, y);
                     marker.onDraw(canvas);
@@ -360,37 +692,487 @@ public class RulerView extends View {
                 }
             }
         }
+        if (stripAlpha < 255) {
+            canvas.restore();
+        }
 
-        //Drawing Circle
-        mCirclePaint.setColor(mCircleColor.isStateful() ? mCircleColor.getColorForState(drawableState, Color.BLACK) : mCircleColor.getDefaultColor());
-
-        float circleY = (height - mIndicator.getIntrinsicHeight()) / 2f + mIndicator.getIntrinsicHeight();
-        float topAndBottomCirclePadding = 8;
-        float radius = (height - mIndicator.getIntrinsicHeight()) / 2f - 2f * topAndBottomCirclePadding;
-        canvas.drawCircle(halfInsetWidth, circleY, radius, mCirclePaint);
+        //Draw indicator and circle from the cached overlay layer
+        drawOverlay(canvas, paddingLeft + halfInsetWidth, halfInsetWidth, paddingTop, height, indicatorHeight, drawableState);
 
         //Draw Value
-
-        mLabelPaint.setTextSize(50);
-        mLabelPaint.setColor(Color.WHITE);
-        mLabelPaint.setTextAlign(Paint.Align.CENTER);
-        final float yPos = (height - mIndicator.getIntrinsicHeight()) / 2f - ((mLabelPaint.descent() + mLabelPaint.ascent()) / 2f) + mIndicator.getIntrinsicHeight();
+        final float yPos = (height - indicatorHeight) / 2f - ((mLabelPaint.descent() + mLabelPaint.ascent()) / 2f) + indicatorHeight;
         final float xPos = width / 2f;
-        canvas.drawText(Integer.toString(mValue), xPos, yPos, mLabelPaint);
+        final char[] valueText = mValueText;
+        final int valueTextLength = mValueTextFormatter.formatValue(mValue, valueText, 0);
+        final float halfValueTextWidth = mLabelPaint.measureText(valueText, 0, valueTextLength) / 2;
+        mValueTextBounds.set((int) Math.floor(xPos - halfValueTextWidth), (int) Math.floor(yPos + mLabelPaint.ascent()),
+                (int) Math.ceil(xPos + halfValueTextWidth), (int) Math.ceil(yPos + mLabelPaint.descent()));
+        canvas.drawText(valueText, 0, valueTextLength, xPos, yPos, mLabelPaint);
     }
 
-    private int getValueForContentOffset(int contentOffset) {
-        return Math.max(Math.min(Math.round(contentOffset * 1.0f / mStepWidth), mMaxValue), mMinValue);
+    /**
+     * @return alpha of the strip and markers, below 255 while they fade in after a smooth scroll
+     * skipped ahead
+     */
+    private int getStripAlpha() {
+        if (!mFadingIn) {
+            return 255;
+        }
+        final long elapsed = (mAnimationClock.currentAnimationTimeNanos() - mFadeInStartNanos) / 1000000L;
+        if (elapsed >= TELEPORT_FADE_DURATION) {
+            mFadingIn = false;
+            return 255;
+        }
+        return (int) (255 * Math.max(0, elapsed) / TELEPORT_FADE_DURATION);
     }
 
-    private int getContentOffsetForValue(int relativeValue) {
-        try {
-            return MathUtils.multiplyExact(relativeValue, mStepWidth);
-        } catch (Exception e) {
-            return Integer.MAX_VALUE;
+    /**
+     * Draws the static overlay, the indicator and the circle are only rendered again when size,
+     * state, colors or the indicator change
+     */
+    private void drawOverlay(Canvas canvas, int indicatorCenterX, int circleX, int paddingTop, int height, int indicatorHeight, int[] drawableState) {
+        final Drawable indicator = mIndicator;
+        final Rect bounds = mTempRect;
+        final float circleY = (height - indicatorHeight) / 2f + indicatorHeight;
+        final float topAndBottomCirclePadding = 8;
+        final float radius = (height - indicatorHeight) / 2f - 2f * topAndBottomCirclePadding;
+        if (radius > 0) {
+            bounds.set((int) Math.floor(circleX - radius), (int) Math.floor(circleY - radius), (int) Math.ceil(circleX + radius), (int) Math.ceil(circleY + radius));
+        } else {
+            bounds.setEmpty();
+        }
+        if (null != indicator) {
+            final int indicatorWidth = indicator.getIntrinsicWidth();
+            indicator.setBounds(indicatorCenterX - indicatorWidth / 2, paddingTop, indicatorCenterX + indicatorWidth / 2, indicatorHeight);
+            bounds.union(indicator.getBounds());
+        }
+        if (bounds.isEmpty()) {
+            return;
+        }
+
+        if (mOverlayDirty || !bounds.equals(mOverlayBounds)) {
+            if (null == mOverlay || mOverlay.getWidth() != bounds.width() || mOverlay.getHeight() != bounds.height()) {
+                mOverlay = Bitmap.createBitmap(bounds.width(), bounds.height(), Bitmap.Config.ARGB_8888);
+            } else {
+                mOverlay.eraseColor(Color.TRANSPARENT);
+            }
+            mOverlayBounds.set(bounds);
+            final Canvas overlayCanvas = mOverlayCanvas;
+            overlayCanvas.setBitmap(mOverlay);
+            overlayCanvas.save();
+            overlayCanvas.translate(-bounds.left, -bounds.top);
+            if (null != indicator) {
+                indicator.draw(overlayCanvas);
+            }
+            if (radius > 0) {
+                mOverlayCircleColor = resolveColor(mCircleColor, drawableState);
+                mCirclePaint.setColor(mOverlayCircleColor);
+                overlayCanvas.drawCircle(circleX, circleY, radius, mCirclePaint);
+            }
+            overlayCanvas.restore();
+            overlayCanvas.setBitmap(null);
+            mOverlayDirty = false;
+        }
+        canvas.drawBitmap(mOverlay, mOverlayBounds.left, mOverlayBounds.top, null);
+    }
+
+    private static int resolveColor(ColorStateList color, int[] drawableState) {
+        return color.isStateful() ? color.getColorForState(drawableState, Color.BLACK) : color.getDefaultColor();
+    }
+
+    /**
+     * Renders the overlay again and only repaints the indicator and circle bounds
+     */
+    private void invalidateOverlay() {
+        mOverlayDirty = true;
+        if (mOverlayBounds.isEmpty()) {
+            invalidate();
+        } else {
+            invalidate(mOverlayBounds);
+        }
+    }
+
+    /**
+     * Repaints the ticks and labels of the strip, the markers below them are not affected
+     */
+    private void invalidateStrip() {
+        if (mStripBottom > 0) {
+            invalidate(0, 0, getWidth(), mStripBottom);
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Repaints the value text in the middle of the ruler
+     */
+    private void invalidateValueArea() {
+        if (mValueTextBounds.isEmpty()) {
+            invalidate();
+        } else {
+            final Rect bounds = mTempRect;
+            bounds.set(mValueTextBounds);
+            bounds.union(mOverlayBounds);
+            bounds.union(0, bounds.top, getWidth(), bounds.bottom);
+            invalidate(bounds);
+        }
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        final int[] drawableState = getDrawableState();
+        final Drawable indicator = mIndicator;
+        boolean overlayChanged = null != indicator && indicator.isStateful() && indicator.setState(drawableState);
+        overlayChanged |= resolveColor(mCircleColor, drawableState) != mOverlayCircleColor;
+        if (overlayChanged) {
+            invalidateOverlay();
+        }
+        if (resolveColor(mScaleColor, drawableState) != mStripScaleColor
+                || (null != mScaleTextColor && mScaleTextColor.getColorForState(drawableState, Color.BLACK) != mStripTextColor)) {
+            invalidateStrip();
         }
     }
 
+    @Override
+    public void invalidateDrawable(@NonNull Drawable drawable) {
+        if (drawable == mIndicator) {
+            invalidateOverlay();
+        } else {
+            super.invalidateDrawable(drawable);
+        }
+    }
+
+    private void drawScaleTiles(Canvas canvas, int originX, int width) {
+        final ScaleTileCache tileCache = mTileCache;
+        final int tileWidth = tileCache.getTileWidth();
+        if (tileWidth <= 0) {
+            return;
+        }
+        final float margin = getMaxLabelWidth() / 2 + mScaleSize;
+        final int firstTile = (int) Math.floor(Math.max(-originX, getContentOffsetForValue(mScaleModel.getMinValue()) - margin) / tileWidth);
+        final int lastTile = (int) Math.floor(Math.min(width - originX, getContentOffsetForValue(mScaleModel.getMaxValue()) + margin) / tileWidth);
+        //A tile already drawn in this frame must not be recycled for a later one of the same frame
+        tileCache.pin(firstTile, lastTile);
+        for (int index = firstTile; index <= lastTile; index++) {
+            final Bitmap tile = tileCache.getTile(index, mTileRenderer);
+            if (null != tile) {
+                canvas.drawBitmap(tile, originX + index * tileWidth, 0, mTilePaint);
+                if (null != mFrameMetrics) {
+                    mFrameMetrics.addTileDrawn();
+                }
+            }
+        }
+        tileCache.unpin();
+    }
+
+    private void drawScalesBatched(Canvas canvas, int originX, long from, long to, float fontY) {
+        final int strokeWidth = Math.round(mScaleSize);
+        if (from > to || strokeWidth <= 0) {
+            return;
+        }
+        final int tickCount = collectTicks(from, to);
+        ensureTickBufferCapacity(tickCount);
+        mTickPaint.setStrokeWidth(strokeWidth);
+
+        //Snap the left edge of each tick to a whole pixel so no anti-aliasing is needed
+        final float halfStrokeWidth = strokeWidth / 2f;
+        final int sectionScaleCount = Math.max(1, mSectionScaleCount);
+        final long minValue = mScaleModel.getMinValue();
+        final long maxValue = mScaleModel.getMaxValue();
+        final long[] tickValues = mTickValues;
+        final int[] tickOffsets = mTickOffsets;
+        final float[] minorTickLines = mMinorTickLines;
+        final float[] majorTickLines = mMajorTickLines;
+        final ScaleLabelCache labelCache = mLabelCache;
+        int minorCount = 0;
+        int majorCount = 0;
+        beginScaleLabels(originX);
+        for (int index = 0; index < tickCount; index++) {
+            final long value = tickValues[index];
+            final int centerX = originX + tickOffsets[index];
+            final float x = Math.round(centerX - halfStrokeWidth) + halfStrokeWidth;
+            if (0 == getSectionIndex(value, sectionScaleCount) || value == maxValue || value == minValue) {
+                majorTickLines[majorCount++] = x;
+                majorTickLines[majorCount++] = 0;
+                majorTickLines[majorCount++] = x;
+                majorTickLines[majorCount++] = mScaleMaxHeight;
+                final int slot = obtainScaleLabel(value, centerX);
+                if (slot >= 0) {
+                    drawScaleLabel(canvas, labelCache.charsAt(slot), labelCache.lengthAt(slot), centerX, fontY);
+                }
+            } else {
+                minorTickLines[minorCount++] = x;
+                minorTickLines[minorCount++] = 0;
+                minorTickLines[minorCount++] = x;
+                minorTickLines[minorCount++] = mScaleMinHeight;
+            }
+        }
+        if (null != mFrameMetrics) {
+            mFrameMetrics.addTicksDrawn((minorCount + majorCount) / 4);
+        }
+        if (minorCount > 0) {
+            canvas.drawLines(minorTickLines, 0, minorCount, mTickPaint);
+        }
+        if (majorCount > 0) {
+            canvas.drawLines(majorTickLines, 0, majorCount, mTickPaint);
+        }
+    }
+
+    private void drawScaleLabel(Canvas canvas, char[] label, int length, float centerX, float fontY) {
+        if (null == mGlyphAtlas || !mGlyphAtlas.draw(canvas, label, length, centerX, fontY, mScaleLabelPaint)) {
+            canvas.drawText(label, 0, length, centerX, fontY, mScaleLabelPaint);
+        }
+    }
+
+    /**
+     * Collects the ticks of [from, to] drawn at the current level of detail, every multiple of the
+     * stride plus the min and max values, and converts them to content offsets in one pass of the
+     * scale model
+     *
+     * @return the number of ticks, their values and offsets are in mTickValues and mTickOffsets
+     */
+    private int collectTicks(long from, long to) {
+        final ScaleModel scaleModel = mScaleModel;
+        final long tickStride = mTickStride;
+        final long maxValue = scaleModel.getMaxValue();
+        final int capacity = (int) Math.min((to - from) / tickStride + 3, Integer.MAX_VALUE / 4);
+        if (mTickValues.length < capacity) {
+            mTickValues = new long[capacity];
+            mTickOffsets = new int[capacity];
+        }
+        final long[] tickValues = mTickValues;
+        int tickCount = 0;
+        long value = LevelOfDetail.getFirstTickValue(from, tickStride, scaleModel.getMinValue(), maxValue);
+        while (value <= to) {
+            tickValues[tickCount++] = value;
+            if (value >= maxValue) {
+                break;
+            }
+            value = LevelOfDetail.getNextTickValue(value, tickStride, maxValue);
+        }
+        scaleModel.getContentOffsetsForValues(tickValues, mTickOffsets, tickCount);
+        return tickCount;
+    }
+
+    private void ensureTickBufferCapacity(int tickCount) {
+        //Four floats per tick, grown only when the visible tick count does
+        final int capacity = tickCount * 4;
+        if (mMinorTickLines.length < capacity) {
+            mMinorTickLines = new float[capacity];
+            mMajorTickLines = new float[capacity];
+        }
+    }
+
+    /**
+     * Draws the ticks and section labels of [from, to] at the current level of detail, originX is
+     * the x coordinate of the origin value of the scale model
+     */
+    private void drawScaleRange(Canvas canvas, float originX, long from, long to, float fontY) {
+        if (from > to) {
+            return;
+        }
+        final float halfScaleSize = mScaleSize / 2f;
+        final int sectionScaleCount = Math.max(1, mSectionScaleCount);
+        final long minValue = mScaleModel.getMinValue();
+        final long maxValue = mScaleModel.getMaxValue();
+        final int tickCount = collectTicks(from, to);
+        final long[] tickValues = mTickValues;
+        final int[] tickOffsets = mTickOffsets;
+        final ScaleLabelCache labelCache = mLabelCache;
+        beginScaleLabels(originX);
+        for (int index = 0; index < tickCount; index++) {
+            final long value = tickValues[index];
+            final float centerX = originX + tickOffsets[index];
+            if (0 == getSectionIndex(value, sectionScaleCount) || value == maxValue || value == minValue) {
+                canvas.drawRect(centerX - halfScaleSize, 0, centerX + halfScaleSize, mScaleMaxHeight, mRulerPaint);
+                final int slot = obtainScaleLabel(value, centerX);
+                if (slot >= 0) {
+                    drawScaleLabel(canvas, labelCache.charsAt(slot), labelCache.lengthAt(slot), centerX, fontY);
+                }
+            } else {
+                canvas.drawRect(centerX - halfScaleSize, 0, centerX + halfScaleSize, mScaleMinHeight, mRulerPaint);
+            }
+        }
+        if (null != mFrameMetrics) {
+            mFrameMetrics.addTicksDrawn(tickCount);
+        }
+    }
+
+    /**
+     * Chooses how many values apart ticks and labels are drawn from the average spacing of the
+     * visible ticks, so the work of a frame is bounded by the view width
+     *
+     * @param scale horizontal scale the strip is drawn with, labels are scaled along with the
+     *              spacing so only the ticks depend on it
+     */
+    private void updateLevelOfDetail(long from, long to, float scale) {
+        final ScaleModel scaleModel = mScaleModel;
+        float spacing = scaleModel.getExactStepWidth();
+        if (to > from) {
+            spacing = (float) (((double) scaleModel.getContentOffsetForValue(to) - scaleModel.getContentOffsetForValue(from)) / (to - from));
+        }
+        final int sectionScaleCount = Math.max(1, mSectionScaleCount);
+        final long tickStride = LevelOfDetail.getTickStride(spacing * scale, sectionScaleCount, mScaleSize + mMinTickGap);
+        final long labelStride = LevelOfDetail.getLabelStride(spacing, sectionScaleCount, tickStride, getMaxLabelWidth() + mMinLabelGap);
+        if (tickStride != mTickStride || labelStride != mLabelStride) {
+            mTickStride = tickStride;
+            mLabelStride = labelStride;
+            mTileCache.invalidate();
+        }
+    }
+
+    /**
+     * Starts the label placement of one draw pass, the labels of the min and max values always
+     * win over the ones next to them
+     */
+    private void beginScaleLabels(float originX) {
+        final ScaleLabelCache labelCache = mLabelCache;
+        final long minValue = mScaleModel.getMinValue();
+        final long maxValue = mScaleModel.getMaxValue();
+        mMinLabelRight = originX + getContentOffsetForValue(minValue) + labelCache.widthAt(obtainLabel(minValue)) / 2 + mMinLabelGap;
+        mMaxLabelLeft = originX + getContentOffsetForValue(maxValue) - labelCache.widthAt(obtainLabel(maxValue)) / 2 - mMinLabelGap;
+        mLastLabelRight = -Float.MAX_VALUE;
+    }
+
+    /**
+     * Labels are drawn on multiples of the label stride, the min and the max value, a label that
+     * would overlap the previous one or the min and max labels is skipped
+     *
+     * @return the label cache slot of value, -1 if no label is drawn
+     */
+    private int obtainScaleLabel(long value, float centerX) {
+        final long minValue = mScaleModel.getMinValue();
+        final long maxValue = mScaleModel.getMaxValue();
+        final boolean edge = value == minValue || value == maxValue;
+        if (!edge && !LevelOfDetail.isMultiple(value, mLabelStride)) {
+            return -1;
+        }
+        final int slot = obtainLabel(value);
+        final float halfWidth = mLabelCache.widthAt(slot) / 2;
+        if (!edge && (centerX - halfWidth < Math.max(mMinLabelRight, mLastLabelRight) || centerX + halfWidth > mMaxLabelLeft)) {
+            return -1;
+        }
+        mLastLabelRight = centerX + halfWidth + mMinLabelGap;
+        return slot;
+    }
+
+    /**
+     * @return the position of value inside its section, 0 for the major tick
+     */
+    private static int getSectionIndex(long value, int sectionScaleCount) {
+        final int index = (int) (value % sectionScaleCount);
+        return index < 0 ? index + sectionScaleCount : index;
+    }
+
+    /**
+     * Computes the first and last visible value arithmetically, a tick is visible when its label
+     * or its rect intersects the view
+     *
+     * @param originX x coordinate of the origin value
+     * @param width   width of the view
+     */
+    private void computeVisibleRange(int originX, int width) {
+        final float extent = Math.max(getMaxLabelWidth(), mScaleSize) / 2;
+        mFirstVisibleValue = mScaleModel.getFirstVisibleValue(originX, extent);
+        mLastVisibleValue = mScaleModel.getLastVisibleValue(originX, width, extent);
+    }
+
+    /**
+     * 获取当前可见的刻度值区间，文本或刻度与视图相交即视为可见
+     *
+     * @return 可见刻度值区间，没有可见刻度时为空区间
+     */
+    public ValueRange getVisibleValueRange() {
+        computeVisibleRange(getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight()) / 2 - mContentOffset, getWidth());
+        return new ValueRange(mFirstVisibleValue, mLastVisibleValue);
+    }
+
+    /**
+     * @return the widest label of the scale, measured from the range bounds and every label drawn
+     * since the last invalidation
+     */
+    private float getMaxLabelWidth() {
+        if (!mMaxLabelWidthValid) {
+            obtainLabel(mScaleModel.getMinValue());
+            obtainLabel(mScaleModel.getMaxValue());
+            mMaxLabelWidthValid = true;
+        }
+        return mMaxLabelWidth;
+    }
+
+    /**
+     * Obtains the label of value from the cache and accounts its width
+     *
+     * @return the label cache slot of value
+     */
+    private int obtainLabel(long value) {
+        final ScaleLabelCache labelCache = mLabelCache;
+        final int slot = labelCache.obtain(value);
+        mMaxLabelWidth = Math.max(mMaxLabelWidth, labelCache.widthAt(slot));
+        return slot;
+    }
+
+    private void invalidateScale() {
+        mMaxLabelWidthValid = false;
+        mMaxLabelWidth = 0;
+        mTileCache.setTileSize(getSectionWidth(), getHeight());
+        mTileCache.invalidate();
+    }
+
+    /**
+     * @return width of one section in whole pixels, tiles are a multiple of it
+     */
+    private int getSectionWidth() {
+        return Math.max(1, Math.round(mScaleModel.getExactStepWidth() * Math.max(1, mSectionScaleCount)));
+    }
+
+    private long getValueForContentOffset(int contentOffset) {
+        return mScaleModel.getValueForContentOffset(contentOffset);
+    }
+
+    private int getContentOffsetForValue(long value) {
+        return mScaleModel.getContentOffsetForValue(value);
+    }
+
+    /**
+     * Recomputes every content offset from the current value, the origin is moved to the value
+     * first when the value is too far away from it
+     */
+    private void updateContentOffsets() {
+        if (Math.abs(getContentOffsetForValue(mValue)) > REBASE_DISTANCE && mScroller.isFinished()) {
+            setOriginValue(mValue);
+        }
+        mContentOffset = getContentOffsetForValue(mValue);
+        mMaxContentOffset = getContentOffsetForValue(mScaleModel.getMaxValue());
+        mMinContentOffset = getContentOffsetForValue(mScaleModel.getMinValue());
+    }
+
+    /**
+     * Moves the origin to the tick nearest to the current content offset once it drifted too far,
+     * the position between two ticks is kept. Only allowed while the scroller is idle
+     */
+    private void rebaseContentOffset() {
+        if (Math.abs(mContentOffset) > REBASE_DISTANCE && mScroller.isFinished()) {
+            final long originValue = getValueForContentOffset(mContentOffset);
+            final int originOffset = getContentOffsetForValue(originValue);
+            setOriginValue(originValue);
+            mContentOffset -= originOffset;
+            mMaxContentOffset = getContentOffsetForValue(mScaleModel.getMaxValue());
+            mMinContentOffset = getContentOffsetForValue(mScaleModel.getMinValue());
+        }
+    }
+
+    private void setOriginValue(long originValue) {
+        mScaleModel.setOriginValue(originValue);
+        //Tiles are keyed by content offset
+        mTileCache.invalidate();
+    }
+
+    private static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(value, Integer.MAX_VALUE));
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent event) {
         final float x = event.getX();
@@ -399,32 +1181,44 @@ public class RulerView extends View {
         int width = getWidth();
         switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
+                //Keep the zoom reached so far when a zoom animation is interrupted
+                commitZoom();
                 resetStateAndAbortScroll();
+                rebaseContentOffset();
                 mDownX = x;
                 break;
             case MotionEvent.ACTION_POINTER_DOWN:
                 if (pointerCount > 1) {
                     mDownDistance = getMaxDistanceOfPointers(event);
+                    mLastDistance = mDownDistance;
                 }
                 break;
             case MotionEvent.ACTION_POINTER_UP:
+                if (STATE_PINCH == mState && pointerCount <= 2) {
+                    //Only one finger is left, apply the zoom and let the scale settle
+                    commitZoom();
+                    setState(STATE_RESET);
+                    scrollToRoundedValue();
+                }
                 break;
             case MotionEvent.ACTION_MOVE:
                 if (pointerCount > 1) {
-                    float currentDistance = getMaxDistanceOfPointers(event);
+                    final float currentDistance = getMaxDistanceOfPointers(event);
+                    final float focusX = getFocusXOfPointers(event);
                     if (STATE_PINCH != mState && STATE_SCROLL != mState) {
                         if (Math.abs(currentDistance - mDownDistance) > mTouchSlop) {
                             getParent().requestDisallowInterceptTouchEvent(true);
-                            mState = STATE_PINCH;
+                            setState(STATE_PINCH);
+                            mZoomController.begin(mScaleModel.getExactStepWidth(), focusX);
+                            mLastDistance = currentDistance;
                         }
                     }
                     if (STATE_PINCH == mState) {
-                        float dDistance = currentDistance - mLastDistance;
-                        mStepWidth = Math.max(1, (int) (mStepWidth + dDistance / 2));
-                        mValue = Math.max(mMinValue, Math.min(mValue, mMaxValue));
-                        mContentOffset = getContentOffsetForValue(mValue);
-                        mMaxContentOffset = getContentOffsetForValue(mMaxValue);
-                        mMinContentOffset = getContentOffsetForValue(mMinValue);
+                        //Only the transform changes while pinching, the layout is applied once at the end
+                        if (mLastDistance > 0) {
+                            mZoomController.zoomBy(currentDistance / mLastDistance, focusX);
+                        }
+                        updateZoomValue();
                         invalidate();
                     }
                     mLastDistance = currentDistance;
@@ -433,7 +1227,7 @@ public class RulerView extends View {
                     if (STATE_SCROLL != mState && STATE_PINCH != mState) {
                         if (Math.abs(x - mDownX) > mTouchSlop) {
                             getParent().requestDisallowInterceptTouchEvent(true);
-                            mState = STATE_SCROLL;
+                            setState(STATE_SCROLL);
                         }
                     }
                     if (STATE_SCROLL == mState) {
@@ -464,92 +1258,420 @@ public class RulerView extends View {
                             }
                         }
                     case STATE_PINCH:
-                        mState = STATE_RESET;
+                        commitZoom();
+                        setState(STATE_RESET);
                         scrollToRoundedValue();
                         break;
                     default:
                     case STATE_FLING:
                     case STATE_RESET:
                     case STATE_SCROLL:
-                        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
-                        float velocityX = mVelocityTracker.getXVelocity();
+                        float velocityX = mVelocityEstimator.computeVelocity(1000, mMaximumVelocity);
                         if (mContentOffset < mMinContentOffset) {
-                            mState = STATE_RESET;
+                            setState(STATE_RESET);
                             mScroller.springBack(mContentOffset, 0, mMinContentOffset, mMaxContentOffset, 0, 0);
                         } else if (mContentOffset > mMaxContentOffset) {
-                            mState = STATE_RESET;
+                            setState(STATE_RESET);
                             mScroller.springBack(mContentOffset, 0, mMinContentOffset, mMaxContentOffset, 0, 0);
                         } else if (Math.abs(velocityX) > mMinimumVelocity) {
-                            mState = STATE_FLING;
-                            int resolvedVelocityX = (int) -velocityX;
-
-                            //矫正Fling速度，让最后始终停留在我具体的刻度上
-                            int flingOffset = (int) mScroller.getSplineFlingDistance(resolvedVelocityX);
-                            int targetOffset = mContentOffset + flingOffset;
-                            if (targetOffset >= mMinContentOffset && targetOffset <= mMaxContentOffset) {
-                                resolvedVelocityX = mScroller.getSplineFlingVelocity(getContentOffsetForValue(getValueForContentOffset(targetOffset)) - mContentOffset);
+                            setState(STATE_FLING);
+                            //预测终点并吸附到刻度，一次Fling精确停在刻度上；终点超出范围时使用带回弹的Fling，边界本身就是刻度
+                            final int targetOffset = FlingCorrection.getFlingTarget(mScroller, mScaleModel, mContentOffset, (int) -velocityX, mMinContentOffset, mMaxContentOffset);
+                            if (Integer.MIN_VALUE != targetOffset) {
+                                mScroller.flingTo(mContentOffset, targetOffset);
+                            } else {
+                                mScroller.fling(mContentOffset, 0, (int) -velocityX, 0, mMinContentOffset, mMaxContentOffset, 0, 0, (int) (width / 8f), 0);
                             }
-                            mScroller.fling(mContentOffset, 0, resolvedVelocityX, 0, mMinContentOffset, mMaxContentOffset, 0, 0, (int) (width / 8f), 0);
                         } else {
-                            mState = STATE_RESET;
+                            setState(STATE_RESET);
                             scrollToRoundedValue();
                         }
                         break;
                 }
+                mFrameDriver.start();
                 invalidate();
             case MotionEvent.ACTION_CANCEL:
-                mVelocityTracker.clear();
+                if (STATE_PINCH == mState) {
+                    commitZoom();
+                    setState(STATE_RESET);
+                    scrollToRoundedValue();
+                }
+                mVelocityEstimator.clear();
                 break;
         }
-        mVelocityTracker.addMovement(event);
+        addVelocitySamples(event);
         mLastX = event.getX();
         return true;
     }
 
+    /**
+     * Feeds the first pointer to the velocity estimator, including the samples batched into the
+     * event since the previous one
+     */
+    private void addVelocitySamples(MotionEvent event) {
+        final int pointerId = event.getPointerId(0);
+        if (MotionEvent.ACTION_DOWN == event.getActionMasked() || pointerId != mVelocityPointerId) {
+            //A new gesture or another finger became the first pointer, its history does not continue the old one
+            mVelocityEstimator.clear();
+            mVelocityPointerId = pointerId;
+        }
+        final int historySize = event.getHistorySize();
+        for (int index = 0; index < historySize; index++) {
+            mVelocityEstimator.addSample(event.getHistoricalEventTime(index), event.getHistoricalX(0, index));
+        }
+        mVelocityEstimator.addSample(event.getEventTime(), event.getX());
+    }
+
     private float getMaxDistanceOfPointers(MotionEvent event) {
         final int pointerCount = event.getPointerCount();
-        float maxX = 0, minX = 0;
-        for (int index = 0; index < pointerCount; index++) {
+        float maxX = event.getX(0), minX = maxX;
+        for (int index = 1; index < pointerCount; index++) {
             float currentX = event.getX(index);
             maxX = Math.max(currentX, maxX);
             minX = Math.min(currentX, minX);
         }
-        return Math.abs(maxX - minX);
+        return maxX - minX;
     }
 
-    public void setRulerValueFormatter(RulerValueFormatter rulerValueFormatter) {
-        mRulerValueFormatter = rulerValueFormatter;
+    private float getFocusXOfPointers(MotionEvent event) {
+        final int pointerCount = event.getPointerCount();
+        float maxX = event.getX(0), minX = maxX;
+        for (int index = 1; index < pointerCount; index++) {
+            float currentX = event.getX(index);
+            maxX = Math.max(currentX, maxX);
+            minX = Math.min(currentX, minX);
+        }
+        return (maxX + minX) / 2;
+    }
+
+    private int getIndicatorX() {
+        return getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight()) / 2;
+    }
+
+    /**
+     * Updates the value to the one under the indicator in the zoom preview
+     */
+    private void updateZoomValue() {
+        final int indicatorX = getIndicatorX();
+        final long contentOffset = mContentOffset + Math.round(mZoomController.toStartX(indicatorX) - indicatorX);
+        final long value = getValueForContentOffset(saturateContentOffset(contentOffset));
+        if (value != mValue) {
+            mValue = value;
+            notifyValueChanged();
+        }
+    }
+
+    /**
+     * Applies the zoom shown by the preview transform to the layout in one go, the content under
+     * the indicator stays where it is
+     */
+    private void commitZoom() {
+        final ZoomController zoomController = mZoomController;
+        if (!zoomController.isZooming()) {
+            return;
+        }
+        final long contentOffset = zoomController.getCommittedContentOffset(mContentOffset, getIndicatorX());
+        mScaleModel.setStepWidth(zoomController.getCommittedStepWidth());
+        zoomController.end();
+        invalidateScale();
+        mContentOffset = saturateContentOffset(contentOffset);
+        mMaxContentOffset = getContentOffsetForValue(mScaleModel.getMaxValue());
+        mMinContentOffset = getContentOffsetForValue(mScaleModel.getMinValue());
+        mValue = getValueForContentOffset(mContentOffset);
         notifyValueChanged();
         invalidate();
     }
 
+    private static int saturateContentOffset(long contentOffset) {
+        return (int) Math.max(-ScaleModel.MAX_CONTENT_OFFSET, Math.min(contentOffset, ScaleModel.MAX_CONTENT_OFFSET));
+    }
+
+    public void setRulerValueFormatter(RulerValueFormatter rulerValueFormatter) {
+        mRulerValueFormatter = rulerValueFormatter;
+        //Also when the same instance is set again, the formatter may have been changed since
+        mLabelCache.setFormatter(rulerValueFormatter);
+        invalidateScale();
+        forceNotifyValueChanged();
+        invalidateStrip();
+    }
+
     private void resetStateAndAbortScroll() {
-        mState = STATE_IDLE;
+        abortScroll();
+        setState(STATE_IDLE);
+    }
+
+    /**
+     * Stops every running animation and leaves the state to the caller
+     */
+    private void abortScroll() {
+        //Drops an unfinished zoom preview, the layout is left as it was before the zoom
+        mZoomController.end();
+        if (null != mZoomAnimator) {
+            mZoomAnimator.cancel();
+        }
+        if (null != mFrameMetrics) {
+            mFrameMetrics.endFling();
+        }
         mScroller.abortAnimation();
+        mFrameDriver.stop();
+        mContentOffsetFraction = 0;
     }
 
+    private void setState(int state) {
+        mState = state;
+        if (STATE_RESET != state) {
+            //Anything but settling ends a smooth scroll, a later call starts a new one
+            mSmoothScrolling = false;
+        }
+        if (STATE_IDLE == state) {
+            mFadingIn = false;
+        }
+        updateScrollState();
+    }
+
+    /**
+     * Maps the internal state to the public scroll state and reports changes of it
+     */
+    private void updateScrollState() {
+        final int scrollState;
+        if (STATE_SCROLL == mState || STATE_PINCH == mState) {
+            scrollState = SCROLL_STATE_DRAGGING;
+        } else if (STATE_FLING == mState || STATE_RESET == mState || mZoomController.isZooming()) {
+            scrollState = SCROLL_STATE_SETTLING;
+        } else {
+            scrollState = SCROLL_STATE_IDLE;
+        }
+        if (scrollState != mScrollState) {
+            mScrollState = scrollState;
+            for (int index = mScrollListeners.size() - 1; index >= 0; index--) {
+                mScrollListeners.get(index).onScrollStateChanged(this, scrollState);
+            }
+        }
+    }
+
+    private void notifyValueSettled() {
+        if (mValueSettled && mSettledValue == mValue) {
+            return;
+        }
+        mSettledValue = mValue;
+        mValueSettled = true;
+        for (int index = mScrollListeners.size() - 1; index >= 0; index--) {
+            mScrollListeners.get(index).onValueSettled(this, mValue);
+        }
+    }
+
+    /**
+     * @return {@link #SCROLL_STATE_IDLE}，{@link #SCROLL_STATE_DRAGGING}或{@link #SCROLL_STATE_SETTLING}
+     */
+    @ScrollState
+    public int getScrollState() {
+        return mScrollState;
+    }
+
+    public void addOnRulerScrollListener(OnRulerScrollListener listener) {
+        if (null == listener) {
+            throw new IllegalArgumentException("监听不能为空");
+        }
+        mScrollListeners.add(listener);
+    }
+
+    public void removeOnRulerScrollListener(OnRulerScrollListener listener) {
+        mScrollListeners.remove(listener);
+    }
+
+    /**
+     * @return 当前值，超出int范围时饱和，完整的值通过{@link #getValueLong()}获取
+     */
     public int getValue() {
+        return clampToInt(mValue);
+    }
+
+    public long getValueLong() {
         return mValue;
     }
 
     public void setValue(@IntRange(from = 0, to = MAX_VALUE) int value) {
-        mValue = Math.max(mMinValue, Math.min(value, mMaxValue));
-        mContentOffset = getContentOffsetForValue(mValue);
-        mMaxContentOffset = getContentOffsetForValue(mMaxValue);
-        mMinContentOffset = getContentOffsetForValue(mMinValue);
+        setValueLong(value);
+    }
+
+    public void setValueLong(long value) {
+        final long originValue = mScaleModel.getOriginValue();
+        final int contentOffset = mContentOffset;
+        final int maxContentOffset = mMaxContentOffset;
+        final int minContentOffset = mMinContentOffset;
+        final boolean wasIdle = STATE_IDLE == mState && mScroller.isFinished();
+        mValue = mScaleModel.clampValue(value);
         resetStateAndAbortScroll();
-        invalidate();
+        updateContentOffsets();
+        if (!wasIdle || originValue != mScaleModel.getOriginValue() || contentOffset != mContentOffset
+                || maxContentOffset != mMaxContentOffset || minContentOffset != mMinContentOffset) {
+            invalidate();
+        }
         notifyValueChanged();
+        notifyValueSettled();
+    }
+
+    /**
+     * 平滑滚动到指定值，近距离按Fling的减速曲线滚动并精确停在刻度上；距离超过3个控件宽度时跳过中间部分，
+     * 只滚动最后一个控件宽度并淡入刻度，不会绘制大量中间帧。滚动或Fling过程中调用会从当前速度出发把动画重定向到新的目标，
+     * 速度不会突变，滚动状态保持{@link #SCROLL_STATE_SETTLING}，不会先停下再重新开始
+     *
+     * @param value 目标值，超出范围时限制在[minValue, maxValue]之间
+     */
+    public void smoothScrollToValue(long value) {
+        final long target = mScaleModel.clampValue(value);
+        final int width = getWidth();
+        if (width <= 0 || !ViewCompat.isAttachedToWindow(this)) {
+            //No frames will come, there is nothing to animate
+            setValueLong(target);
+            return;
+        }
+        if (mSmoothScrolling && target == mSmoothScrollTarget) {
+            return;
+        }
+        if (!mSmoothScrolling && target == mValue && STATE_IDLE == mState && mScroller.isFinished() && mScaleModel.isOnTick(mContentOffset)) {
+            return;
+        }
+        //A running smooth scroll or fling is retargeted, the new motion leaves at its velocity.
+        //The next state is known, so the scroll listeners are not told about a stop in between
+        final float velocity = mScroller.getCurrVelocityX();
+        abortScroll();
+
+        //Saturated offsets of far away targets only tell that the target is far
+        final long distance = (long) getContentOffsetForValue(target) - mContentOffset;
+        if (Math.abs(distance) > (long) width * TELEPORT_DISTANCE_WIDTHS) {
+            //Skip to the last stretch before the target, moving the origin to the target keeps
+            //the offsets small however far the jump is
+            setOriginValue(target);
+            mContentOffset = (int) -Math.signum(distance) * width * TELEPORT_SCROLL_WIDTHS;
+            mMaxContentOffset = getContentOffsetForValue(mScaleModel.getMaxValue());
+            mMinContentOffset = getContentOffsetForValue(mScaleModel.getMinValue());
+            mValue = getValueForContentOffset(mContentOffset);
+            mFadingIn = true;
+            mFadeInStartNanos = mAnimationClock.currentAnimationTimeNanos();
+            notifyValueChanged();
+        }
+        mContentOffsetFraction = 0;
+        mScroller.flingTo(mContentOffset, getContentOffsetForValue(target), velocity);
+        setState(STATE_RESET);
+        mSmoothScrolling = true;
+        mSmoothScrollTarget = target;
+        mFrameDriver.start();
+        invalidate();
+    }
+
+    /**
+     * 在当前值的基础上平滑滚动，正在平滑滚动时在之前的目标值上累加，连续调用不会丢失距离
+     *
+     * @param delta 滚动的值，正数向最大值方向滚动
+     * @see #smoothScrollToValue(long)
+     */
+    public void smoothScrollBy(long delta) {
+        final long from = mSmoothScrolling ? mSmoothScrollTarget : mValue;
+        final long target = from + delta;
+        //Saturate on overflow, the target is clamped to the range anyway
+        if (((from ^ target) & (delta ^ target)) < 0) {
+            smoothScrollToValue(delta > 0 ? Long.MAX_VALUE : Long.MIN_VALUE);
+        } else {
+            smoothScrollToValue(target);
+        }
     }
 
     public String getFormatValue() {
-        return null != mRulerValueFormatter ? mRulerValueFormatter.formatValue(mValue) : String.valueOf(mValue);
+        return mLabelCache.labelAt(obtainLabel(mValue));
     }
 
     public void setOnRulerValueChangeListener(OnRulerValueChangeListener onRulerValueChangeListener) {
         mOnRulerValueChangeListener = onRulerValueChangeListener;
     }
 
+    /**
+     * 添加只携带原始数值的值变化监听，在主线程中同步回调，可以添加多个，与{@link #setOnRulerValueChangeListener(OnRulerValueChangeListener)}可以同时使用
+     */
+    public void addOnRulerValueListener(OnRulerValueListener listener) {
+        addOnRulerValueListener(listener, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * 添加在handler所在线程回调的值变化监听
+     *
+     * @see #addOnRulerValueListener(OnRulerValueListener, Executor)
+     */
+    public void addOnRulerValueListener(OnRulerValueListener listener, final Handler handler) {
+        if (null == handler) {
+            throw new IllegalArgumentException("Handler不能为空");
+        }
+        addOnRulerValueListener(listener, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                handler.post(command);
+            }
+        });
+    }
+
+    /**
+     * 添加在executor中回调的值变化监听，适合回调中有耗时工作的监听，滚动与绘制不会等待回调完成
+     * <p>
+     * 同一个监听同时最多只有一次回调在排队或执行，期间的变化只保留最新的值，回调结束后立即收到最新值，中间值会被丢弃。
+     * 回调不在主线程时不能访问标尺的其它方法，需要显示文本时自行格式化
+     *
+     * @param listener 监听
+     * @param executor 执行回调的executor
+     */
+    public void addOnRulerValueListener(OnRulerValueListener listener, Executor executor) {
+        if (null == listener || null == executor) {
+            throw new IllegalArgumentException("监听与Executor不能为空");
+        }
+        mValueListeners.add(new ValueListenerDispatcher(this, listener, executor));
+    }
+
+    /**
+     * 移除值变化监听，已经在执行的回调不会被中断
+     */
+    public void removeOnRulerValueListener(OnRulerValueListener listener) {
+        for (ValueListenerDispatcher dispatcher : mValueListeners) {
+            if (dispatcher.getListener() == listener) {
+                dispatcher.remove();
+                mValueListeners.remove(dispatcher);
+            }
+        }
+    }
+
+    public long getValueNotifyInterval() {
+        return mNotifyInterval;
+    }
+
+    /**
+     * 设置松手时计算Fling速度的策略
+     *
+     * @param strategy {@link VelocityEstimator#STRATEGY_LSQ2}（默认）或{@link VelocityEstimator#STRATEGY_IMPULSE}
+     */
+    public void setVelocityEstimationStrategy(int strategy) {
+        mVelocityEstimator.setStrategy(strategy);
+    }
+
+    public int getVelocityEstimationStrategy() {
+        return mVelocityEstimator.getStrategy();
+    }
+
+    /**
+     * 设置值变化回调的最小间隔，适合在回调中做耗时工作的监听。间隔内的多次变化合并为一次，最后的值总会回调
+     *
+     * @param intervalMillis {@link #NOTIFY_IMMEDIATELY}，{@link #NOTIFY_PER_FRAME}或者以毫秒为单位的最小间隔
+     */
+    public void setValueNotifyInterval(long intervalMillis) {
+        if (intervalMillis < NOTIFY_PER_FRAME) {
+            throw new IllegalArgumentException("回调间隔不能小于0: " + intervalMillis);
+        }
+        mNotifyInterval = intervalMillis;
+        if (mNotifyPending) {
+            //Deliver the pending value right away instead of on the old schedule
+            removeCallbacks(mNotifyRunnable);
+            mNotifyPending = false;
+            dispatchValueChanged();
+        }
+    }
+
     public void setTextColorResource(@ColorRes int res) {
         setTextColor(0 != res ? getResources().getColorStateList(res) : ColorStateList.valueOf(Color.BLACK));
     }
@@ -564,12 +1686,100 @@ public class RulerView extends View {
 
     @ViewDebug.ExportedProperty(category = "custom")
     public int getStepWidth() {
-        return mStepWidth;
+        return mScaleModel.getStepWidth();
+    }
+
+    /**
+     * @return 未取整的步长，缩放后步长可以是小数
+     */
+    @ViewDebug.ExportedProperty(category = "custom")
+    public float getExactStepWidth() {
+        return mScaleModel.getExactStepWidth();
     }
 
     public void setStepWidth(int stepWidth) {
-        mStepWidth = Math.max(1, stepWidth);
-        setValue(mValue);
+        mScaleModel.setStepWidth(stepWidth);
+        invalidateScale();
+        setValueLong(mValue);
+    }
+
+    /**
+     * 设置双指缩放时步长的范围，默认从1像素到200dp
+     *
+     * @param minStepWidth 最小步长，不能小于1
+     * @param maxStepWidth 最大步长，不能小于最小步长
+     */
+    public void setZoomRange(int minStepWidth, int maxStepWidth) {
+        mZoomController.setStepWidthRange(minStepWidth, maxStepWidth);
+    }
+
+    /**
+     * 以动画缩放到刚好显示全部刻度，缩放结果受{@link #setZoomRange(int, int)}限制，范围的中间值停在指示器处
+     */
+    public void zoomToFit() {
+        final int insetWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        if (insetWidth <= 0) {
+            return;
+        }
+        commitZoom();
+        resetStateAndAbortScroll();
+        final float stepWidth = mScaleModel.getExactStepWidth();
+        final int minContentOffset = getContentOffsetForValue(mScaleModel.getMinValue());
+        final int maxContentOffset = getContentOffsetForValue(mScaleModel.getMaxValue());
+        final float steps = ((float) maxContentOffset - minContentOffset) / stepWidth;
+        final float targetStepWidth = steps > 0 ? mZoomController.clampStepWidth(insetWidth / steps) : stepWidth;
+        final int indicatorX = getIndicatorX();
+        final float centerX = indicatorX - mContentOffset + ((float) minContentOffset + maxContentOffset) / 2;
+        mZoomController.begin(stepWidth, indicatorX);
+        updateScrollState();
+        if (null == mZoomAnimator) {
+            mZoomAnimator = ValueAnimator.ofFloat(0, 1);
+            mZoomAnimator.setDuration(ZOOM_TO_FIT_DURATION);
+            mZoomAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    if (mZoomController.isZooming()) {
+                        commitZoom();
+                        setState(STATE_RESET);
+                        scrollToRoundedValue();
+                    }
+                }
+            });
+        }
+        mZoomAnimator.removeAllUpdateListeners();
+        mZoomAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                final float fraction = (Float) animation.getAnimatedValue();
+                //Move the middle of the range under the indicator while scaling around it
+                mZoomController.setZoom(stepWidth + (targetStepWidth - stepWidth) * fraction,
+                        indicatorX + (centerX - indicatorX) * fraction, indicatorX);
+                updateZoomValue();
+                invalidate();
+            }
+        });
+        mZoomAnimator.start();
+    }
+
+    public ScaleModel getScaleModel() {
+        return mScaleModel;
+    }
+
+    /**
+     * 设置刻度模型，决定刻度之间的间距，默认为均匀间距的{@link LinearScaleModel}。模型自身的步长与取值范围会直接生效，
+     * 之后对模型的修改需要通过标尺的对应方法进行，或者重新调用本方法
+     *
+     * @param scaleModel 刻度模型
+     * @see LogScaleModel
+     * @see PiecewiseScaleModel
+     */
+    public void setScaleModel(ScaleModel scaleModel) {
+        if (null == scaleModel) {
+            throw new IllegalArgumentException("刻度模型不能为空");
+        }
+        mScaleModel = scaleModel;
+        invalidateScale();
+        setValueLong(mValue);
     }
 
     @ViewDebug.ExportedProperty(category = "custom")
@@ -583,7 +1793,7 @@ public class RulerView extends View {
 
     public void setScaleColor(ColorStateList color) {
         mScaleColor = color;
-        invalidate();
+        invalidateStrip();
     }
 
     @ViewDebug.ExportedProperty(category = "custom")
@@ -597,12 +1807,12 @@ public class RulerView extends View {
 
     public void setRulerColor(ColorStateList color) {
         mRulerColor = color;
-        invalidate();
+        invalidateStrip();
     }
 
     public void setCircleColor(ColorStateList color) {
         mCircleColor = color;
-        invalidate();
+        invalidateOverlay();
     }
 
     public void setCircleColor(@ColorInt int color) {
@@ -616,7 +1826,8 @@ public class RulerView extends View {
 
     public void setSectionScaleCount(int sectionScaleCount) {
         mSectionScaleCount = Math.max(0, sectionScaleCount);
-        invalidate();
+        invalidateScale();
+        invalidateStrip();
     }
 
     @ViewDebug.ExportedProperty(category = "custom")
@@ -635,7 +1846,13 @@ public class RulerView extends View {
         mIndicator = indicator;
         if (null != indicator) {
             indicator.setCallback(this);
+            if (indicator.isStateful()) {
+                indicator.setState(getDrawableState());
+            }
         }
+        invalidateScale();
+        mOverlayDirty = true;
+        requestLayout();
         invalidate();
     }
 
@@ -646,6 +1863,7 @@ public class RulerView extends View {
 
     public void setScaleMinHeight(int scaleMinHeight) {
         mScaleMinHeight = scaleMinHeight;
+        invalidateScale();
         requestLayout();
         invalidate();
     }
@@ -657,6 +1875,7 @@ public class RulerView extends View {
 
     public void setScaleMaxHeight(int scaleMaxHeight) {
         mScaleMaxHeight = scaleMaxHeight;
+        invalidateScale();
         requestLayout();
         invalidate();
     }
@@ -668,6 +1887,7 @@ public class RulerView extends View {
 
     public void setScaleSize(int scaleSize) {
         mScaleSize = Math.max(0, scaleSize);
+        invalidateScale();
         requestLayout();
         invalidate();
     }
@@ -685,28 +1905,44 @@ public class RulerView extends View {
 
     @ViewDebug.ExportedProperty(category = "custom")
     public int getMaxValue() {
-        return mMaxValue;
+        return clampToInt(mScaleModel.getMaxValue());
+    }
+
+    public long getMaxValueLong() {
+        return mScaleModel.getMaxValue();
     }
 
     public void setMaxValue(@IntRange(from = 0, to = MAX_VALUE) int maxValue) {
-        if (maxValue < mMinValue) {
-            throw new IllegalArgumentException("最大值: " + maxValue + " 不能小于最小值: " + mMinValue);
-        }
-        mMaxValue = maxValue;
-        setValue(mValue);
+        mScaleModel.setMaxValue(maxValue);
+        invalidateScale();
+        setValueLong(mValue);
     }
 
     @ViewDebug.ExportedProperty(category = "custom")
     public int getMinValue() {
-        return mMinValue;
+        return clampToInt(mScaleModel.getMinValue());
+    }
+
+    public long getMinValueLong() {
+        return mScaleModel.getMinValue();
     }
 
     public void setMinValue(@IntRange(from = 0, to = MAX_VALUE) int minValue) {
-        if (minValue > mMaxValue) {
-            throw new IllegalArgumentException("最小值: " + minValue + " 不能大于最大值: " + mMaxValue);
-        }
-        mMinValue = minValue;
-        setValue(mValue);
+        mScaleModel.setMinValue(minValue);
+        invalidateScale();
+        setValueLong(mValue);
+    }
+
+    /**
+     * 同时设置最小值与最大值，取值范围不受{@link #MAX_VALUE}限制
+     *
+     * @param minValue 最小值
+     * @param maxValue 最大值，不能小于最小值
+     */
+    public void setRange(long minValue, long maxValue) {
+        mScaleModel.setRange(minValue, maxValue);
+        invalidateScale();
+        setValueLong(mValue);
     }
 
     @ViewDebug.ExportedProperty(category = "custom")
@@ -716,12 +1952,241 @@ public class RulerView extends View {
 
     public void setTextSize(float textSize) {
         mTextSize = textSize;
-        mScaleLabelPaint.setTextSize(textSize);
-        mFontMetrics = mScaleLabelPaint.getFontMetrics();
+        updateTextStyle();
+        invalidateScale();
         requestLayout();
         invalidate();
     }
 
+    @ViewDebug.ExportedProperty(category = "custom")
+    public Typeface getTypeface() {
+        return mTypeface;
+    }
+
+    public void setTypeface(Typeface typeface) {
+        if (mTypeface != typeface) {
+            mTypeface = typeface;
+            updateTextStyle();
+            invalidateScale();
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置刻度文本缓存的容量，容量应大于同屏可见的刻度数量
+     * <p>
+     * 每个标尺有自己的刻度文本缓存，文字大小和字体都相同的标尺共享文本画笔与字形图集
+     *
+     * @param size 缓存的刻度文本数量
+     */
+    public void setLabelCacheSize(int size) {
+        size = Math.max(1, size);
+        if (size != mLabelCache.getCapacity()) {
+            mLabelCache.setCapacity(size);
+            invalidateScale();
+            invalidate();
+        }
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public int getLabelCacheSize() {
+        return mLabelCache.getCapacity();
+    }
+
+    /**
+     * @return 刻度文本缓存的命中次数
+     */
+    @ViewDebug.ExportedProperty(category = "custom")
+    public long getLabelCacheHitCount() {
+        return mLabelCache.getHitCount();
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public long getLabelCacheMissCount() {
+        return mLabelCache.getMissCount();
+    }
+
+    public void resetLabelCacheCounters() {
+        mLabelCache.resetCounters();
+    }
+
+    /**
+     * 开启后刻度文本由预先光栅化的数字字形拼接绘制，包含字形集以外字符的文本仍使用{@link Canvas#drawText}
+     *
+     * @param enabled 是否使用字形图集
+     */
+    public void setGlyphAtlasEnabled(boolean enabled) {
+        if (enabled != mGlyphAtlasEnabled) {
+            mGlyphAtlasEnabled = enabled;
+            mGlyphAtlas = enabled ? mTextStyle.getGlyphAtlas() : null;
+            invalidate();
+        }
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public boolean isGlyphAtlasEnabled() {
+        return mGlyphAtlasEnabled;
+    }
+
+    /**
+     * 设置每一帧绘制完成后的统计回调，设置后会自动开启统计
+     *
+     * @param listener 回调，为null时如未通过{@link #setFrameMetricsEnabled(boolean)}开启则停止统计
+     */
+    public void setFrameMetricsListener(OnRulerFrameMetricsListener listener) {
+        mFrameMetricsListener = listener;
+        updateFrameMetrics();
+    }
+
+    /**
+     * 开启或关闭帧耗时与工作量统计，统计结果可通过{@link #getFrameMetrics()}或
+     * {@link ViewDebug.ExportedProperty}导出的属性获取
+     *
+     * @param enabled 是否开启
+     */
+    public void setFrameMetricsEnabled(boolean enabled) {
+        mFrameMetricsEnabled = enabled;
+        updateFrameMetrics();
+    }
+
+    private void updateFrameMetrics() {
+        if (mFrameMetricsEnabled || null != mFrameMetricsListener) {
+            if (null == mFrameMetrics) {
+                mFrameMetrics = new RulerFrameMetrics();
+            }
+        } else {
+            mFrameMetrics = null;
+        }
+    }
+
+    /**
+     * @return 帧统计数据，未开启统计时为null
+     */
+    @Nullable
+    public RulerFrameMetrics getFrameMetrics() {
+        return mFrameMetrics;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public long getLastDrawDurationNanos() {
+        return null != mFrameMetrics ? mFrameMetrics.getDrawDurationNanos() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public long getAverageDrawDurationNanos() {
+        return null != mFrameMetrics ? mFrameMetrics.getAverageDrawDurationNanos() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public long getMaxDrawDurationNanos() {
+        return null != mFrameMetrics ? mFrameMetrics.getMaxDrawDurationNanos() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public long getLastComputeScrollDurationNanos() {
+        return null != mFrameMetrics ? mFrameMetrics.getComputeScrollDurationNanos() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public int getLastTicksDrawn() {
+        return null != mFrameMetrics ? mFrameMetrics.getTicksDrawn() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public int getLastLabelsFormatted() {
+        return null != mFrameMetrics ? mFrameMetrics.getLabelsFormatted() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public int getLastMarkersDrawn() {
+        return null != mFrameMetrics ? mFrameMetrics.getMarkersDrawn() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public int getLastFlingFrameCount() {
+        return null != mFrameMetrics ? mFrameMetrics.getLastFlingFrameCount() : 0;
+    }
+
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public long getSkippedFrameCount() {
+        return null != mFrameMetrics ? mFrameMetrics.getSkippedFrameCount() : 0;
+    }
+
+    /**
+     * @return 所在屏幕的刷新率，单位Hz，每次开始滚动动画时更新
+     */
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public float getDisplayRefreshRate() {
+        return mFrameDriver.getRefreshRate();
+    }
+
+    /**
+     * 滚动动画实际达到的帧率，由{@code Choreographer}帧时间的移动平均得出，不需要开启帧统计。动画位置按帧时间采样，
+     * 不同刷新率下的惯性滑动轨迹相同，只是采样的密度不同
+     *
+     * @return 最近一次滚动动画的帧率，单位Hz，还没有滚动动画时为0
+     */
+    @ViewDebug.ExportedProperty(category = "metrics")
+    public float getAnimationFrameRate() {
+        return mFrameDriver.getFrameRate();
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    @RenderMode
+    public int getRenderMode() {
+        return mRenderMode;
+    }
+
+    /**
+     * 设置刻度的绘制方式
+     *
+     * @param renderMode {@link #RENDER_MODE_DIRECT}，{@link #RENDER_MODE_TILED}或{@link #RENDER_MODE_BATCHED}
+     */
+    public void setRenderMode(@RenderMode int renderMode) {
+        if (mRenderMode != renderMode) {
+            mRenderMode = renderMode;
+            invalidateScale();
+            invalidate();
+        }
+    }
+
+    /**
+     * 设置{@link #RENDER_MODE_TILED}模式下刻度分块缓存占用的最大字节数，不足以容纳一帧可见的分块时，
+     * 实际占用会提高到可见分块数加一个分块，已绘制的分块在同一帧内不会被复用
+     *
+     * @param maxBytes 最大字节数
+     */
+    public void setTileCacheSize(int maxBytes) {
+        mTileCache.setMaxBytes(maxBytes);
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public int getTileCacheSize() {
+        return mTileCache.getMaxBytes();
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public float getValueTextSize() {
+        return mLabelPaint.getTextSize();
+    }
+
+    public void setValueTextSize(float textSize) {
+        mLabelPaint.setTextSize(textSize);
+        //The value text bounds are only known for the old size until the next draw
+        invalidate();
+    }
+
+    @ViewDebug.ExportedProperty(category = "custom")
+    public int getValueTextColor() {
+        return mLabelPaint.getColor();
+    }
+
+    public void setValueTextColor(@ColorInt int color) {
+        mLabelPaint.setColor(color);
+        invalidateValueArea();
+    }
+
     @ViewDebug.ExportedProperty(category = "custom")
     public ColorStateList getScaleTextColor() {
         return mScaleTextColor;
@@ -733,7 +2198,17 @@ public class RulerView extends View {
 
     public void setTextColor(ColorStateList color) {
         mScaleTextColor = color;
-        invalidate();
+        invalidateStrip();
+    }
+
+    @IntDef({RENDER_MODE_DIRECT, RENDER_MODE_TILED, RENDER_MODE_BATCHED})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface RenderMode {
+    }
+
+    @IntDef({SCROLL_STATE_IDLE, SCROLL_STATE_DRAGGING, SCROLL_STATE_SETTLING})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface ScrollState {
     }
 
     @Override
@@ -759,7 +2234,7 @@ public class RulerView extends View {
     protected void onRestoreInstanceState(Parcelable state) {
         SavedState savedState = (SavedState) state;
         super.onRestoreInstanceState(savedState.getSuperState());
-        mStepWidth = savedState.mStepWidth;
+        mScaleModel.setStepWidth(savedState.mStepWidth);
         mScaleColor = savedState.mScaleColor;
         mRulerColor = savedState.mRulerColor;
         mCircleColor = savedState.mCircleColor;
@@ -768,16 +2243,18 @@ public class RulerView extends View {
         mScaleMaxHeight = savedState.mScaleMaxHeight;
         mScaleSize = savedState.mScaleSize;
         mRulerSize = savedState.mRulerSize;
-        mMaxValue = savedState.mMaxValue;
-        mMinValue = savedState.mMinValue;
+        mScaleModel.setRange(savedState.mMinValue, savedState.mMaxValue);
+        mScaleModel.setOriginValue(savedState.mOriginValue);
         mValue = savedState.mValue;
         setTextSize(savedState.mTextSize);
         mScaleTextColor = savedState.mTextColor;
-        mState = savedState.mState;
-        mContentOffset = savedState.mContentOffset;
+        //A scroll in flight does not survive the restore, the value is put back on its tick and the view stays idle
+        resetStateAndAbortScroll();
+        mContentOffset = getContentOffsetForValue(mValue);
         mMaxContentOffset = savedState.mMaxContentOffset;
         mMinContentOffset = savedState.mMinContentOffset;
         mMarkers = savedState.mMarkers;
+        invalidateScale();
         for (Marker marker : mMarkers) {
             marker.onAttach(this);
         }
@@ -787,7 +2264,7 @@ public class RulerView extends View {
     @Override
     protected Parcelable onSaveInstanceState() {
         SavedState state = new SavedState(super.onSaveInstanceState());
-        state.mStepWidth = mStepWidth;
+        state.mStepWidth = mScaleModel.getExactStepWidth();
         state.mScaleColor = mScaleColor;
         state.mRulerColor = mRulerColor;
         state.mCircleColor = mCircleColor;
@@ -796,13 +2273,12 @@ public class RulerView extends View {
         state.mScaleMaxHeight = mScaleMaxHeight;
         state.mScaleSize = mScaleSize;
         state.mRulerSize = mRulerSize;
-        state.mMaxValue = mMaxValue;
-        state.mMinValue = mMinValue;
+        state.mMaxValue = mScaleModel.getMaxValue();
+        state.mMinValue = mScaleModel.getMinValue();
         state.mValue = mValue;
+        state.mOriginValue = mScaleModel.getOriginValue();
         state.mTextSize = mTextSize;
         state.mTextColor = mScaleTextColor;
-        state.mState = mState;
-        state.mContentOffset = mContentOffset;
         state.mMaxContentOffset = mMaxContentOffset;
         state.mMinContentOffset = mMinContentOffset;
         state.mMarkers = mMarkers;
@@ -821,7 +2297,7 @@ public class RulerView extends View {
                 return new SavedState[size];
             }
         };
-        private int mStepWidth;
+        private float mStepWidth;
         private ColorStateList mScaleColor;
         private ColorStateList mRulerColor;
         private ColorStateList mCircleColor;
@@ -830,20 +2306,19 @@ public class RulerView extends View {
         private int mScaleMaxHeight;
         private int mScaleSize;
         private int mRulerSize;
-        private int mMaxValue;
-        private int mMinValue;
-        private int mValue;
+        private long mMaxValue;
+        private long mMinValue;
+        private long mValue;
+        private long mOriginValue;
         private float mTextSize;
         private ColorStateList mTextColor;
-        private int mState;
-        private int mContentOffset;
         private int mMaxContentOffset;
         private int mMinContentOffset;
         private List<Marker> mMarkers;
 
         public SavedState(Parcel source) {
             super(source);
-            mStepWidth = source.readInt();
+            mStepWidth = source.readFloat();
             mScaleColor = source.readParcelable(ColorStateList.class.getClassLoader());
             mRulerColor = source.readParcelable(ColorStateList.class.getClassLoader());
             mCircleColor = source.readParcelable(ColorStateList.class.getClassLoader());
@@ -852,13 +2327,12 @@ public class RulerView extends View {
             mScaleMaxHeight = source.readInt();
             mScaleSize = source.readInt();
             mRulerSize = source.readInt();
-            mMaxValue = source.readInt();
-            mMinValue = source.readInt();
-            mValue = source.readInt();
+            mMaxValue = source.readLong();
+            mMinValue = source.readLong();
+            mValue = source.readLong();
+            mOriginValue = source.readLong();
             mTextSize = source.readFloat();
             mTextColor = source.readParcelable(ColorStateList.class.getClassLoader());
-            mState = source.readInt();
-            mContentOffset = source.readInt();
             mMaxContentOffset = source.readInt();
             mMinContentOffset = source.readInt();
             mMarkers = source.readArrayList(Marker.class.getClassLoader());
@@ -871,7 +2345,7 @@ public class RulerView extends View {
         @Override
         public void writeToParcel(Parcel out, int flags) {
             super.writeToParcel(out, flags);
-            out.writeInt(mStepWidth);
+            out.writeFloat(mStepWidth);
             out.writeParcelable(mScaleColor, 0);
             out.writeParcelable(mRulerColor, 0);
             out.writeParcelable(mCircleColor, 0);
@@ -880,13 +2354,12 @@ public class RulerView extends View {
             out.writeInt(mScaleMaxHeight);
             out.writeInt(mScaleSize);
             out.writeInt(mRulerSize);
-            out.writeInt(mMaxValue);
-            out.writeInt(mMinValue);
-            out.writeInt(mValue);
+            out.writeLong(mMaxValue);
+            out.writeLong(mMinValue);
+            out.writeLong(mValue);
+            out.writeLong(mOriginValue);
             out.writeFloat(mTextSize);
             out.writeParcelable(mTextColor, 0);
-            out.writeInt(mState);
-            out.writeInt(mContentOffset);
             out.writeInt(mMaxContentOffset);
             out.writeInt(mMinContentOffset);
             out.writeList(mMarkers);
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Pre-rasterized glyphs of the characters numeric labels are made of.
+ * <p>
+ * The atlas is an {@link Bitmap.Config#ALPHA_8} bitmap, so it is tinted by the paint color when
+ * drawn and only has to be rebuilt when the text size or typeface changes. Labels containing a
+ * character outside of the atlas are left to the caller.
+ */
+class ScaleGlyphAtlas {
+    private final static String DEFAULT_CHARACTERS = "0123456789,.-+% ";
+    private final static int PADDING = 2;
+
+    private final String mCharacters;
+    private final int[] mAsciiIndexes = new int[128];
+    private final float[] mAdvances;
+    private final int[] mCellLefts;
+    private final int[] mCellWidths;
+    private final Paint mBitmapPaint = new Paint();
+    private final Rect mSrc = new Rect();
+    private final RectF mDst = new RectF();
+
+    private Bitmap mAtlas;
+    private float mTextSize;
+    private Typeface mTypeface;
+    private int mCellTop;
+    private int mCellHeight;
+
+    ScaleGlyphAtlas() {
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+        StringBuilder characters = new StringBuilder(DEFAULT_CHARACTERS);
+        for (char c : new char[]{symbols.getGroupingSeparator(), symbols.getDecimalSeparator(), symbols.getMinusSign()}) {
+            if (characters.indexOf(String.valueOf(c)) < 0) {
+                characters.append(c);
+            }
+        }
+        mCharacters = characters.toString();
+        mAdvances = new float[mCharacters.length()];
+        mCellLefts = new int[mCharacters.length()];
+        mCellWidths = new int[mCharacters.length()];
+        for (int index = 0; index < mAsciiIndexes.length; index++) {
+            mAsciiIndexes[index] = -1;
+        }
+        for (int index = 0; index < mCharacters.length(); index++) {
+            final char c = mCharacters.charAt(index);
+            if (c < mAsciiIndexes.length) {
+                mAsciiIndexes[c] = index;
+            }
+        }
+    }
+
+    /**
+     * Draws label horizontally centered at centerX
+     *
+     * @return false if the label contains characters outside of the atlas, nothing is drawn then
+     */
+    boolean draw(Canvas canvas, char[] label, int length, float centerX, float baseline, Paint textPaint) {
+        ensureAtlas(textPaint);
+        float labelWidth = 0;
+        for (int index = 0; index < length; index++) {
+            final int glyph = indexOf(label[index]);
+            if (glyph < 0) {
+                return false;
+            }
+            labelWidth += mAdvances[glyph];
+        }
+
+        final Bitmap atlas = mAtlas;
+        final int top = Math.round(baseline) + mCellTop;
+        float x = centerX - labelWidth / 2;
+        mBitmapPaint.setColor(textPaint.getColor());
+        for (int index = 0; index < length; index++) {
+            final int glyph = indexOf(label[index]);
+            final int left = Math.round(x) - PADDING;
+            mSrc.set(mCellLefts[glyph], 0, mCellLefts[glyph] + mCellWidths[glyph], mCellHeight);
+            mDst.set(left, top, left + mCellWidths[glyph], top + mCellHeight);
+            canvas.drawBitmap(atlas, mSrc, mDst, mBitmapPaint);
+            x += mAdvances[glyph];
+        }
+        return true;
+    }
+
+    private int indexOf(char c) {
+        if (c < mAsciiIndexes.length) {
+            return mAsciiIndexes[c];
+        }
+        return mCharacters.indexOf(c);
+    }
+
+    private void ensureAtlas(Paint textPaint) {
+        if (null != mAtlas && mTextSize == textPaint.getTextSize() && mTypeface == textPaint.getTypeface()) {
+            return;
+        }
+        mTextSize = textPaint.getTextSize();
+        mTypeface = textPaint.getTypeface();
+
+        final Paint paint = new Paint(textPaint);
+        paint.setTextAlign(Paint.Align.LEFT);
+        paint.setColor(Color.WHITE);
+        paint.getTextWidths(mCharacters, mAdvances);
+        final Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+        mCellTop = (int) Math.floor(fontMetrics.top) - PADDING;
+        mCellHeight = (int) Math.ceil(fontMetrics.bottom) - mCellTop + PADDING;
+
+        int atlasWidth = 0;
+        for (int index = 0; index < mAdvances.length; index++) {
+            mCellLefts[index] = atlasWidth;
+            mCellWidths[index] = (int) Math.ceil(mAdvances[index]) + 2 * PADDING;
+            atlasWidth += mCellWidths[index];
+        }
+
+        final Bitmap atlas = Bitmap.createBitmap(Math.max(1, atlasWidth), Math.max(1, mCellHeight), Bitmap.Config.ALPHA_8);
+        final Canvas canvas = new Canvas(atlas);
+        final char[] glyph = new char[1];
+        for (int index = 0; index < mAdvances.length; index++) {
+            glyph[0] = mCharacters.charAt(index);
+            canvas.drawText(glyph, 0, 1, mCellLefts[index] + PADDING, -mCellTop, paint);
+        }
+        mAtlas = atlas;
+    }
+}
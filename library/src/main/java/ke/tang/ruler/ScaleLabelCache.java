@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.graphics.Paint;
+
+/**
+ * Bounded cache of formatted scale labels and their measured widths, keyed by value.
+ * <p>
+ * Slots are direct mapped ({@code value % capacity}), so the visible window of consecutive
+ * values never evicts itself as long as the capacity is larger than the number of visible ticks.
+ * Labels are kept as reusable char rows, with a {@link BufferedRulerValueFormatter} a miss
+ * formats into the row of its slot and allocates nothing; the {@link String} form is only created
+ * when asked for.
+ * <p>
+ * Every ruler owns its cache, the widths are measured with the paint of its {@link ScaleTextStyle}
+ * which may be shared with other rulers.
+ */
+class ScaleLabelCache {
+    final static int DEFAULT_CAPACITY = 256;
+
+    private Paint mPaint;
+    private final LongRulerValueFormatter mDefaultFormatter = new DefaultRulerValueFormatter();
+    private RulerValueFormatter mFormatter;
+
+    private long[] mValues;
+    private char[][] mChars;
+    private int[] mLengths;
+    private String[] mLabels;
+    private float[] mWidths;
+
+    private long mHitCount;
+    private long mMissCount;
+
+    ScaleLabelCache() {
+        setCapacity(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param paint the paint labels are measured with, must be set before the first label is obtained
+     */
+    void setPaint(Paint paint) {
+        if (paint != mPaint) {
+            mPaint = paint;
+            invalidate();
+        }
+    }
+
+    void setFormatter(RulerValueFormatter formatter) {
+        mFormatter = formatter;
+        invalidate();
+    }
+
+    void setCapacity(int capacity) {
+        capacity = Math.max(1, capacity);
+        mValues = new long[capacity];
+        mChars = new char[capacity][BufferedRulerValueFormatter.MAX_LENGTH];
+        mLengths = new int[capacity];
+        mLabels = new String[capacity];
+        mWidths = new float[capacity];
+        invalidate();
+    }
+
+    int getCapacity() {
+        return mValues.length;
+    }
+
+    /**
+     * Drops every cached label, must be called whenever the formatter or the text metrics change
+     */
+    void invalidate() {
+        for (int index = 0; index < mLengths.length; index++) {
+            mLengths[index] = -1;
+            mLabels[index] = null;
+        }
+    }
+
+    /**
+     * Makes sure the label of value is cached
+     *
+     * @param value the value
+     * @return the slot holding the label, valid until the next call
+     */
+    int obtain(long value) {
+        final int slot = (int) ((value & Long.MAX_VALUE) % mValues.length);
+        if (mLengths[slot] >= 0 && mValues[slot] == value) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+            RulerValueFormatter formatter = null != mFormatter ? mFormatter : mDefaultFormatter;
+            if (value != (int) value && !(formatter instanceof LongRulerValueFormatter)) {
+                //Int only formatters can not represent the value, show the plain number instead
+                formatter = mDefaultFormatter;
+            }
+            if (formatter instanceof LongRulerValueFormatter) {
+                mLengths[slot] = ((LongRulerValueFormatter) formatter).formatValue(value, mChars[slot], 0);
+                mLabels[slot] = null;
+            } else if (formatter instanceof BufferedRulerValueFormatter) {
+                mLengths[slot] = ((BufferedRulerValueFormatter) formatter).formatValue((int) value, mChars[slot], 0);
+                mLabels[slot] = null;
+            } else {
+                final String label = formatter.formatValue((int) value);
+                final int length = label.length();
+                if (length > mChars[slot].length) {
+                    mChars[slot] = new char[length];
+                }
+                label.getChars(0, length, mChars[slot], 0);
+                mLengths[slot] = length;
+                mLabels[slot] = label;
+            }
+            mValues[slot] = value;
+            mWidths[slot] = mPaint.measureText(mChars[slot], 0, mLengths[slot]);
+        }
+        return slot;
+    }
+
+    /**
+     * @return the chars of the label in slot, starting at index 0
+     */
+    char[] charsAt(int slot) {
+        return mChars[slot];
+    }
+
+    int lengthAt(int slot) {
+        return mLengths[slot];
+    }
+
+    String labelAt(int slot) {
+        if (null == mLabels[slot]) {
+            mLabels[slot] = new String(mChars[slot], 0, mLengths[slot]);
+        }
+        return mLabels[slot];
+    }
+
+    float widthAt(int slot) {
+        return mWidths[slot];
+    }
+
+    long getHitCount() {
+        return mHitCount;
+    }
+
+    long getMissCount() {
+        return mMissCount;
+    }
+
+    void resetCounters() {
+        mHitCount = 0;
+        mMissCount = 0;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Looper;
+import android.text.TextPaint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scale label resources shared by every ruler with the same text size and typeface: the label
+ * paint, its font metrics and the glyph atlas. Labels depend on the formatter and the values a
+ * ruler shows, so every ruler keeps its own {@link ScaleLabelCache} measured with this paint.
+ * <p>
+ * Styles are reference counted, a ruler retains its style while attached to a window and the
+ * style leaves the pool when the last ruler releases it. A detached ruler may keep using its style
+ * without a reference, the pool just does not hand it out anymore once released.
+ * <p>
+ * The label paint carries only the text size and typeface of the style, every other attribute
+ * (color, alignment) has to be set by the ruler right before it draws with the paint. Label widths
+ * do not depend on those attributes, so they are valid for every ruler sharing the style.
+ */
+class ScaleTextStyle {
+    private final static Map<Key, ScaleTextStyle> sPool = new HashMap<>();
+
+    private final Key mKey;
+    private final TextPaint mPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetrics mFontMetrics;
+    private ScaleGlyphAtlas mGlyphAtlas;
+    private int mReferenceCount;
+
+    private ScaleTextStyle(Key key) {
+        mKey = key;
+        mPaint.setTextSize(key.mTextSize);
+        mPaint.setTypeface(key.mTypeface);
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mFontMetrics = mPaint.getFontMetrics();
+    }
+
+    /**
+     * Retains the pooled style of the attributes, creating it if no ruler uses them yet. Every call
+     * must be balanced by a {@link #release()}.
+     */
+    static ScaleTextStyle acquire(float textSize, Typeface typeface) {
+        final Key key = new Key(textSize, typeface);
+        synchronized (sPool) {
+            ScaleTextStyle style = sPool.get(key);
+            if (null == style) {
+                style = new ScaleTextStyle(key);
+                sPool.put(key, style);
+            }
+            style.mReferenceCount++;
+            return style;
+        }
+    }
+
+    /**
+     * Returns a style of the attributes without retaining it, the pooled one if it exists and the
+     * caller is on the main thread, where all pooled styles are used. Views inflated on a
+     * background thread get a private style until they are attached.
+     */
+    static ScaleTextStyle peek(float textSize, Typeface typeface) {
+        final Key key = new Key(textSize, typeface);
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            synchronized (sPool) {
+                final ScaleTextStyle style = sPool.get(key);
+                if (null != style) {
+                    return style;
+                }
+            }
+        }
+        return new ScaleTextStyle(key);
+    }
+
+    void release() {
+        synchronized (sPool) {
+            if (mReferenceCount > 0 && 0 == --mReferenceCount && sPool.get(mKey) == this) {
+                sPool.remove(mKey);
+            }
+        }
+    }
+
+    boolean hasAttributes(float textSize, Typeface typeface) {
+        return mKey.matches(textSize, typeface);
+    }
+
+    /**
+     * @return the label paint, its color and alignment are undefined until set by the caller
+     */
+    TextPaint getPaint() {
+        return mPaint;
+    }
+
+    Paint.FontMetrics getFontMetrics() {
+        return mFontMetrics;
+    }
+
+    ScaleGlyphAtlas getGlyphAtlas() {
+        if (null == mGlyphAtlas) {
+            mGlyphAtlas = new ScaleGlyphAtlas();
+        }
+        return mGlyphAtlas;
+    }
+
+    private final static class Key {
+        final float mTextSize;
+        final Typeface mTypeface;
+
+        Key(float textSize, Typeface typeface) {
+            mTextSize = textSize;
+            mTypeface = typeface;
+        }
+
+        boolean matches(float textSize, Typeface typeface) {
+            return Float.floatToIntBits(mTextSize) == Float.floatToIntBits(textSize)
+                    && (null == mTypeface ? null == typeface : mTypeface.equals(typeface));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return key.matches(mTextSize, mTypeface);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(mTextSize);
+            result = 31 * result + (null != mTypeface ? mTypeface.hashCode() : 0);
+            return result;
+        }
+    }
+}
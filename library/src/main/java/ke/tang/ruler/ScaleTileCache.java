@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.v4.util.LruCache;
+
+/**
+ * Pre-rendered, section aligned tiles of the scrolling scale strip.
+ * <p>
+ * Tile {@code n} covers the content offsets {@code [n * tileWidth, (n + 1) * tileWidth)}, tiles
+ * are kept in a LRU bounded by a byte budget and re-rendered on demand.
+ * <p>
+ * Tiles drawn in a frame must not be rendered over before the frame is done, a hardware canvas
+ * records the bitmap rather than its pixels. The caller pins the tile range of the frame, pinned
+ * tiles are never recycled and the budget grows to hold them plus the one being rendered.
+ */
+class ScaleTileCache {
+    final static int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    private final static int TARGET_TILE_WIDTH = 256;
+
+    interface TileRenderer {
+        /**
+         * Renders the strip content between tileLeft and tileLeft + tileWidth, the canvas origin
+         * is the left edge of the tile
+         */
+        void renderTile(Canvas canvas, int tileLeft, int tileWidth);
+    }
+
+    private final Canvas mTileCanvas = new Canvas();
+    private final LruCache<Integer, Bitmap> mTiles;
+    private Bitmap mRecycledTile;
+    private int mTileWidth;
+    private int mTileHeight;
+    private int mMaxBytes;
+    //Most tiles a frame needed at once since the geometry changed, including the one rendered
+    private int mMinTileCount;
+    private int mPinnedFirst;
+    private int mPinnedLast = -1;
+
+    ScaleTileCache(int maxBytes) {
+        mMaxBytes = Math.max(1, maxBytes);
+        mTiles = new LruCache<Integer, Bitmap>(mMaxBytes) {
+            @Override
+            protected int sizeOf(Integer key, Bitmap value) {
+                return value.getByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Integer key, Bitmap oldValue, Bitmap newValue) {
+                if (evicted && !isPinned(key) && oldValue.getWidth() == mTileWidth && oldValue.getHeight() == mTileHeight) {
+                    mRecycledTile = oldValue;
+                }
+            }
+        };
+    }
+
+    void setMaxBytes(int maxBytes) {
+        mMaxBytes = Math.max(1, maxBytes);
+        mTiles.resize(getEffectiveMaxBytes());
+    }
+
+    /**
+     * @return the budget asked for, the cache may hold more while it is too small for one frame
+     */
+    int getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * @return the budget in effect, at least the tiles of the largest frame plus one
+     */
+    int getEffectiveMaxBytes() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(mMaxBytes, mMinTileCount * getTileBytes()));
+    }
+
+    long getTileBytes() {
+        //ARGB_8888
+        return 4L * mTileWidth * mTileHeight;
+    }
+
+    int getSizeBytes() {
+        return mTiles.size();
+    }
+
+    /**
+     * Updates the tile geometry, tiles are always a whole number of sections wide
+     *
+     * @param sectionWidth width of one section in pixels
+     * @param height       height of the strip in pixels
+     */
+    void setTileSize(int sectionWidth, int height) {
+        sectionWidth = Math.max(1, sectionWidth);
+        final int tileWidth = sectionWidth * Math.max(1, (TARGET_TILE_WIDTH + sectionWidth - 1) / sectionWidth);
+        if (tileWidth != mTileWidth || height != mTileHeight) {
+            mTileWidth = tileWidth;
+            mTileHeight = height;
+            mRecycledTile = null;
+            mMinTileCount = 0;
+            invalidate();
+            mTiles.resize(getEffectiveMaxBytes());
+        }
+    }
+
+    int getTileWidth() {
+        return mTileWidth;
+    }
+
+    void invalidate() {
+        mTiles.evictAll();
+    }
+
+    /**
+     * Keeps the tiles first to last, inclusive, from being recycled until {@link #unpin()}, the
+     * budget grows if it can not hold them
+     */
+    void pin(int first, int last) {
+        mPinnedFirst = first;
+        mPinnedLast = last;
+        final int tileCount = last - first + 2;
+        if (tileCount > mMinTileCount) {
+            mMinTileCount = tileCount;
+            mTiles.resize(getEffectiveMaxBytes());
+        }
+    }
+
+    void unpin() {
+        mPinnedFirst = 0;
+        mPinnedLast = -1;
+    }
+
+    boolean isPinned(int index) {
+        return index >= mPinnedFirst && index <= mPinnedLast;
+    }
+
+    Bitmap getTile(int index, TileRenderer renderer) {
+        Bitmap tile = mTiles.get(index);
+        if (null == tile && mTileWidth > 0 && mTileHeight > 0) {
+            tile = mRecycledTile;
+            mRecycledTile = null;
+            if (null == tile) {
+                tile = Bitmap.createBitmap(mTileWidth, mTileHeight, Bitmap.Config.ARGB_8888);
+            } else {
+                tile.eraseColor(Color.TRANSPARENT);
+            }
+            mTileCanvas.setBitmap(tile);
+            renderer.renderTile(mTileCanvas, index * mTileWidth, mTileWidth);
+            mTileCanvas.setBitmap(null);
+            mTiles.put(index, tile);
+        }
+        return tile;
+    }
+}
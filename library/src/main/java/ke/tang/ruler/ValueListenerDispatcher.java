@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers values to one listener on its executor, latest value wins.
+ * <p>
+ * At most one delivery is queued or running at a time, values arriving meanwhile only replace the
+ * pending one, so a slow listener sees fewer values instead of a growing backlog and never blocks
+ * the thread notifying it.
+ */
+class ValueListenerDispatcher implements Runnable {
+    private final RulerView mRulerView;
+    private final OnRulerValueListener mListener;
+    private final Executor mExecutor;
+    private final AtomicLong mLatestValue = new AtomicLong();
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private volatile boolean mRemoved;
+
+    ValueListenerDispatcher(RulerView rulerView, OnRulerValueListener listener, Executor executor) {
+        mRulerView = rulerView;
+        mListener = listener;
+        mExecutor = executor;
+    }
+
+    OnRulerValueListener getListener() {
+        return mListener;
+    }
+
+    void dispatch(long value) {
+        mLatestValue.set(value);
+        if (mScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(this);
+        }
+    }
+
+    /**
+     * Stops deliveries, a delivery already running is not interrupted
+     */
+    void remove() {
+        mRemoved = true;
+    }
+
+    @Override
+    public void run() {
+        long value;
+        do {
+            value = mLatestValue.get();
+            if (!mRemoved) {
+                mListener.onRulerValueChanged(mRulerView, value);
+            }
+            mScheduled.set(false);
+            //A value that arrived during the callback could not schedule a run of its own
+        } while (mLatestValue.get() != value && mScheduled.compareAndSet(false, true));
+    }
+}
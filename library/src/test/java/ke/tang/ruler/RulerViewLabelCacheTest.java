@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class RulerViewLabelCacheTest {
+    @Test
+    public void settingMutatedFormatterAgainDropsLabels() {
+        final RulerView view = new RulerView(RuntimeEnvironment.application);
+        final PrefixFormatter formatter = new PrefixFormatter("a");
+        view.setRulerValueFormatter(formatter);
+        view.setValue(5);
+        assertEquals("a5", view.getFormatValue());
+
+        formatter.mPrefix = "b";
+        view.setRulerValueFormatter(formatter);
+        assertEquals("b5", view.getFormatValue());
+    }
+
+    @Test
+    public void rulersOfOneStyleCountTheirOwnLabels() {
+        final PrefixFormatter formatter = new PrefixFormatter("a");
+        final RulerView first = new RulerView(RuntimeEnvironment.application);
+        final RulerView second = new RulerView(RuntimeEnvironment.application);
+        first.setRulerValueFormatter(formatter);
+        second.setRulerValueFormatter(formatter);
+        first.resetLabelCacheCounters();
+        second.resetLabelCacheCounters();
+
+        first.setValue(5);
+        first.getFormatValue();
+        first.getFormatValue();
+        assertEquals(1, first.getLabelCacheMissCount());
+        assertEquals(1, first.getLabelCacheHitCount());
+        assertEquals(0, second.getLabelCacheMissCount());
+        assertEquals(0, second.getLabelCacheHitCount());
+    }
+
+    private static class PrefixFormatter implements RulerValueFormatter {
+        private String mPrefix;
+
+        PrefixFormatter(String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public String formatValue(int value) {
+            return mPrefix + value;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.os.Parcelable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class RulerViewSavedStateTest {
+    @Test
+    public void restoreEndsIdleOnSavedValue() {
+        final RulerView saved = new RulerView(RuntimeEnvironment.application);
+        saved.setValue(30);
+        final Parcelable state = saved.onSaveInstanceState();
+
+        final RulerView restored = new RulerView(RuntimeEnvironment.application);
+        restored.setValue(80);
+        restored.onRestoreInstanceState(state);
+        assertEquals(RulerView.SCROLL_STATE_IDLE, restored.getScrollState());
+        assertEquals(30, restored.getValue());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScaleTileCacheTest {
+    private final static int VIEWPORT_WIDTH = 1440;
+    private final static int STRIP_HEIGHT = 600;
+
+    @Test
+    public void budgetSmallerThanViewportNeverReusesDrawnTile() {
+        final ScaleTileCache cache = new ScaleTileCache(1);
+        cache.setTileSize(30, STRIP_HEIGHT);
+        final int tileWidth = cache.getTileWidth();
+        //A viewport not aligned to the tiles shows a partial tile on both ends
+        final int visibleTileCount = VIEWPORT_WIDTH / tileWidth + 1;
+        final CountingRenderer renderer = new CountingRenderer();
+        for (int frame = 0; frame < 8; frame++) {
+            final int first = frame;
+            final int last = frame + visibleTileCount - 1;
+            final Set<Bitmap> drawn = Collections.newSetFromMap(new IdentityHashMap<Bitmap, Boolean>());
+            renderer.mCount = 0;
+            cache.pin(first, last);
+            for (int index = first; index <= last; index++) {
+                final Bitmap tile = cache.getTile(index, renderer);
+                assertTrue("tile " + index + " of frame " + frame + " reuses a bitmap drawn in the frame", drawn.add(tile));
+            }
+            cache.unpin();
+            //Scrolling by a tile renders only the tile coming into view
+            assertEquals(0 == frame ? visibleTileCount : 1, renderer.mCount);
+        }
+        assertEquals(1, cache.getMaxBytes());
+        assertTrue(cache.getEffectiveMaxBytes() >= (visibleTileCount + 1) * cache.getTileBytes());
+    }
+
+    @Test
+    public void budgetResetsWithGeometry() {
+        final ScaleTileCache cache = new ScaleTileCache(1);
+        cache.setTileSize(30, STRIP_HEIGHT);
+        cache.pin(0, 5);
+        cache.unpin();
+        assertEquals(7 * cache.getTileBytes(), cache.getEffectiveMaxBytes());
+        cache.setTileSize(30, STRIP_HEIGHT / 2);
+        assertEquals(1, cache.getEffectiveMaxBytes());
+    }
+
+    @Test
+    public void largeBudgetIsKept() {
+        final ScaleTileCache cache = new ScaleTileCache(ScaleTileCache.DEFAULT_MAX_BYTES);
+        cache.setTileSize(30, 10);
+        cache.pin(0, 5);
+        cache.unpin();
+        assertEquals(ScaleTileCache.DEFAULT_MAX_BYTES, cache.getEffectiveMaxBytes());
+    }
+
+    private static class CountingRenderer implements ScaleTileCache.TileRenderer {
+        private int mCount;
+
+        @Override
+        public void renderTile(Canvas canvas, int tileLeft, int tileWidth) {
+            mCount++;
+        }
+    }
+}
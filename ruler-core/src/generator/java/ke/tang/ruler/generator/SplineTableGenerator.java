@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.FileOutputStream;
+
+/**
+ * Writes {@code ke.tang.ruler.SplineTables} at build time, so OverScroller starts with constant
+ * tables instead of solving the fling spline on class load.
+ * <p>
+ * The spline constants must match the ones of {@code OverScroller.SplineOverScroller}. The curves
+ * are solved in double precision by bisection to {@link #TOLERANCE}, far below the float
+ * resolution of the table entries.
+ */
+public final class SplineTableGenerator {
+    private final static int NB_SAMPLES = 1024;
+    private final static int FAST_MATH_SAMPLES = 256;
+    private final static double TOLERANCE = 1E-12;
+
+    private final static double INFLEXION = 0.35;
+    private final static double START_TENSION = 0.5;
+    private final static double END_TENSION = 1.0;
+    private final static double P1 = START_TENSION * INFLEXION;
+    private final static double P2 = 1.0 - END_TENSION * (1.0 - INFLEXION);
+
+    private SplineTableGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: SplineTableGenerator <output source directory>");
+        }
+        final File directory = new File(args[0], "ke/tang/ruler");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create " + directory);
+        }
+
+        final float[] position = new float[NB_SAMPLES + 1];
+        final float[] time = new float[NB_SAMPLES + 1];
+        //Both curves start at 0, bisection would only get close to it
+        for (int i = 1; i < NB_SAMPLES; i++) {
+            final double alpha = (double) i / NB_SAMPLES;
+            //Position of the fling at time alpha, the curve is parametric in x
+            final double x = solve(alpha, P1, P2);
+            position[i] = (float) bezier(x, START_TENSION, 1.0);
+            //Time the fling reaches position alpha
+            final double y = solve(alpha, START_TENSION, 1.0);
+            time[i] = (float) bezier(y, P1, P2);
+        }
+        position[NB_SAMPLES] = time[NB_SAMPLES] = 1.0f;
+
+        final float[] log2 = new float[FAST_MATH_SAMPLES + 1];
+        final float[] exp2 = new float[FAST_MATH_SAMPLES + 1];
+        for (int i = 0; i <= FAST_MATH_SAMPLES; i++) {
+            final double fraction = (double) i / FAST_MATH_SAMPLES;
+            log2[i] = (float) (Math.log(1.0 + fraction) / Math.log(2.0));
+            exp2[i] = (float) Math.pow(2.0, fraction);
+        }
+
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(new File(directory, "SplineTables.java")), "UTF-8"));
+        try {
+            writer.println("// Generated by ke.tang.ruler.generator.SplineTableGenerator, do not edit");
+            writer.println("package ke.tang.ruler;");
+            writer.println();
+            writer.println("final class SplineTables {");
+            writer.println("    static final int NB_SAMPLES = " + NB_SAMPLES + ";");
+            writer.println("    static final int FAST_MATH_BITS = " + Integer.numberOfTrailingZeros(FAST_MATH_SAMPLES) + ";");
+            writer.println();
+            writeTable(writer, "SPLINE_POSITION", "Distance coefficient of a fling at time i / NB_SAMPLES", position);
+            writeTable(writer, "SPLINE_TIME", "Time coefficient of a fling at distance i / NB_SAMPLES", time);
+            writeTable(writer, "LOG2", "log2(1 + i / 2^FAST_MATH_BITS)", log2);
+            writeTable(writer, "EXP2", "2^(i / 2^FAST_MATH_BITS)", exp2);
+            writer.println("    private SplineTables() {");
+            writer.println("    }");
+            writer.println("}");
+        } finally {
+            writer.close();
+        }
+        if (writer.checkError()) {
+            throw new IOException("Can not write " + directory);
+        }
+    }
+
+    /**
+     * @return the x where the curve with control values p1 and p2 reaches target
+     */
+    private static double solve(double target, double p1, double p2) {
+        double min = 0.0;
+        double max = 1.0;
+        double x = 0.5;
+        while (max - min > TOLERANCE) {
+            x = (min + max) / 2.0;
+            final double value = bezier(x, p1, p2);
+            if (value > target) {
+                max = x;
+            } else {
+                min = x;
+            }
+        }
+        return x;
+    }
+
+    private static double bezier(double x, double p1, double p2) {
+        final double coef = 3.0 * x * (1.0 - x);
+        return coef * ((1.0 - x) * p1 + x * p2) + x * x * x;
+    }
+
+    private static void writeTable(PrintWriter writer, String name, String comment, float[] values) {
+        writer.println("    /**");
+        writer.println("     * " + comment);
+        writer.println("     */");
+        writer.println("    static final float[] " + name + " = {");
+        for (int index = 0; index < values.length; index += 8) {
+            final StringBuilder line = new StringBuilder("           ");
+            for (int column = index; column < Math.min(index + 8, values.length); column++) {
+                line.append(' ').append(Float.toString(values[column])).append("f,");
+            }
+            writer.println(line);
+        }
+        writer.println("    };");
+        writer.println();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import ke.tang.ruler.BufferedRulerValueFormatter;
+import ke.tang.ruler.DefaultRulerValueFormatter;
+import ke.tang.ruler.MoneyRulerValueFormatter;
+import ke.tang.ruler.ScaleModel;
+
+/**
+ * Formats the labels of one screen of ticks, the way a frame of RulerView does on cache misses
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatterBenchmark {
+    private final static int VISIBLE_TICKS = 64;
+
+    private BufferedRulerValueFormatter mDefaultFormatter;
+    private BufferedRulerValueFormatter mMoneyFormatter;
+    private final char[] mBuffer = new char[BufferedRulerValueFormatter.MAX_LENGTH];
+    private int mFirstValue;
+
+    @Setup
+    public void setup() {
+        mDefaultFormatter = new DefaultRulerValueFormatter();
+        mMoneyFormatter = new MoneyRulerValueFormatter();
+        mFirstValue = ScaleModel.MAX_VALUE / 2;
+    }
+
+    @Benchmark
+    public void defaultLabels(Blackhole blackhole) {
+        for (int value = mFirstValue; value < mFirstValue + VISIBLE_TICKS; value++) {
+            blackhole.consume(String.valueOf(value));
+        }
+    }
+
+    @Benchmark
+    public void moneyLabels(Blackhole blackhole) {
+        for (int value = mFirstValue; value < mFirstValue + VISIBLE_TICKS; value++) {
+            blackhole.consume(mMoneyFormatter.formatValue(value));
+        }
+    }
+
+    @Benchmark
+    public void defaultLabelsBuffered(Blackhole blackhole) {
+        for (int value = mFirstValue; value < mFirstValue + VISIBLE_TICKS; value++) {
+            blackhole.consume(mDefaultFormatter.formatValue(value, mBuffer, 0));
+        }
+    }
+
+    @Benchmark
+    public void moneyLabelsBuffered(Blackhole blackhole) {
+        for (int value = mFirstValue; value < mFirstValue + VISIBLE_TICKS; value++) {
+            blackhole.consume(mMoneyFormatter.formatValue(value, mBuffer, 0));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import ke.tang.ruler.BufferedRulerValueFormatter;
+import ke.tang.ruler.CurrencyRulerValueFormatter;
+import ke.tang.ruler.DecimalRulerValueFormatter;
+import ke.tang.ruler.GroupedRulerValueFormatter;
+import ke.tang.ruler.PercentRulerValueFormatter;
+import ke.tang.ruler.UnitRulerValueFormatter;
+
+/**
+ * Each built-in formatter against the DecimalFormat based equivalent it replaces, over one screen
+ * of ticks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumberFormatterBenchmark {
+    private final static int VISIBLE_TICKS = 64;
+    private final static int FIRST_VALUE = 123456;
+    private final static int FRACTION_DIGITS = 2;
+    private final static String UNIT = " kg";
+
+    @Param({"en_US", "de_DE", "hi_IN"})
+    public String locale;
+
+    private final char[] mBuffer = new char[BufferedRulerValueFormatter.MAX_LENGTH];
+
+    private NumberFormat mGroupedBaseline;
+    private NumberFormat mDecimalBaseline;
+    private NumberFormat mCurrencyBaseline;
+    private NumberFormat mPercentBaseline;
+    private int mCurrencyFractionDigits;
+
+    private BufferedRulerValueFormatter mGrouped;
+    private BufferedRulerValueFormatter mDecimal;
+    private BufferedRulerValueFormatter mCurrency;
+    private BufferedRulerValueFormatter mPercent;
+    private BufferedRulerValueFormatter mUnit;
+
+    @Setup
+    public void setup() {
+        final String[] parts = locale.split("_");
+        final Locale target = new Locale(parts[0], parts[1]);
+
+        mGroupedBaseline = NumberFormat.getIntegerInstance(target);
+        mDecimalBaseline = NumberFormat.getNumberInstance(target);
+        mDecimalBaseline.setMinimumFractionDigits(FRACTION_DIGITS);
+        mDecimalBaseline.setMaximumFractionDigits(FRACTION_DIGITS);
+        mCurrencyBaseline = NumberFormat.getCurrencyInstance(target);
+        mCurrencyFractionDigits = Math.max(0, Currency.getInstance(target).getDefaultFractionDigits());
+        mPercentBaseline = NumberFormat.getPercentInstance(target);
+        mPercentBaseline.setMinimumFractionDigits(FRACTION_DIGITS);
+        mPercentBaseline.setMaximumFractionDigits(FRACTION_DIGITS);
+
+        mGrouped = new GroupedRulerValueFormatter(target);
+        mDecimal = new DecimalRulerValueFormatter(FRACTION_DIGITS, target);
+        mCurrency = new CurrencyRulerValueFormatter(target);
+        mPercent = new PercentRulerValueFormatter(FRACTION_DIGITS, target);
+        mUnit = new UnitRulerValueFormatter(UNIT, 0, target);
+    }
+
+    @Benchmark
+    public void groupedBaseline(Blackhole blackhole) {
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            blackhole.consume(mGroupedBaseline.format(value));
+        }
+    }
+
+    @Benchmark
+    public void grouped(Blackhole blackhole) {
+        format(mGrouped, blackhole);
+    }
+
+    @Benchmark
+    public void decimalBaseline(Blackhole blackhole) {
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            blackhole.consume(mDecimalBaseline.format(BigDecimal.valueOf(value, FRACTION_DIGITS)));
+        }
+    }
+
+    @Benchmark
+    public void decimal(Blackhole blackhole) {
+        format(mDecimal, blackhole);
+    }
+
+    @Benchmark
+    public void currencyBaseline(Blackhole blackhole) {
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            blackhole.consume(mCurrencyBaseline.format(BigDecimal.valueOf(value, mCurrencyFractionDigits)));
+        }
+    }
+
+    @Benchmark
+    public void currency(Blackhole blackhole) {
+        format(mCurrency, blackhole);
+    }
+
+    @Benchmark
+    public void percentBaseline(Blackhole blackhole) {
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            //The percent instance multiplies by 100 itself
+            blackhole.consume(mPercentBaseline.format(BigDecimal.valueOf(value, FRACTION_DIGITS + 2)));
+        }
+    }
+
+    @Benchmark
+    public void percent(Blackhole blackhole) {
+        format(mPercent, blackhole);
+    }
+
+    @Benchmark
+    public void unitBaseline(Blackhole blackhole) {
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            blackhole.consume(mGroupedBaseline.format(value) + UNIT);
+        }
+    }
+
+    @Benchmark
+    public void unit(Blackhole blackhole) {
+        format(mUnit, blackhole);
+    }
+
+    private void format(BufferedRulerValueFormatter formatter, Blackhole blackhole) {
+        final char[] buffer = mBuffer;
+        for (int value = FIRST_VALUE; value < FIRST_VALUE + VISIBLE_TICKS; value++) {
+            blackhole.consume(formatter.formatValue(value, buffer, 0));
+        }
+    }
+}
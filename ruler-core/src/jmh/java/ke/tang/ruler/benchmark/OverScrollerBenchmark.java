@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import ke.tang.ruler.AnimationClock;
+import ke.tang.ruler.FlingCorrection;
+import ke.tang.ruler.LinearScaleModel;
+import ke.tang.ruler.OverScroller;
+import ke.tang.ruler.ScaleModel;
+
+/**
+ * Fling physics as RulerView drives it, with a manual clock advanced one 60Hz frame at a time
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OverScrollerBenchmark {
+    private final static int FRAME_MILLIS = 16;
+    private final static int STEP_WIDTH = 30;
+    private final static int VIEW_WIDTH = 1080;
+
+    @Param({"2", "3"})
+    public float density;
+
+    private final ManualClock mClock = new ManualClock();
+    private OverScroller mScroller;
+    private ScaleModel mScaleModel;
+    private int mMaxContentOffset;
+    private int[] mVelocities;
+
+    @Setup
+    public void setup() {
+        mScroller = new OverScroller(density, mClock);
+        mScroller.setFriction(0.005f);
+        mScaleModel = new LinearScaleModel(STEP_WIDTH, 0, ScaleModel.MAX_VALUE);
+        mMaxContentOffset = mScaleModel.getContentOffsetForValue(ScaleModel.MAX_VALUE);
+        //Slow drags to hard flings in both directions
+        mVelocities = new int[64];
+        for (int index = 0; index < mVelocities.length; index++) {
+            final int magnitude = 200 + index * 300;
+            mVelocities[index] = 0 == index % 2 ? magnitude : -magnitude;
+        }
+    }
+
+    @Benchmark
+    public void flingSetup(Blackhole blackhole) {
+        final OverScroller scroller = mScroller;
+        final int startX = mMaxContentOffset / 2;
+        for (int velocity : mVelocities) {
+            scroller.fling(startX, 0, velocity, 0, 0, mMaxContentOffset, 0, 0, VIEW_WIDTH / 8, 0);
+            blackhole.consume(scroller.getFinalX());
+            scroller.abortAnimation();
+        }
+    }
+
+    /**
+     * One complete fling, every computeScrollOffset call is one frame
+     */
+    @Benchmark
+    public int flingFrames() {
+        final OverScroller scroller = mScroller;
+        scroller.fling(mMaxContentOffset / 2, 0, 12000, 0, 0, mMaxContentOffset, 0, 0, VIEW_WIDTH / 8, 0);
+        int position = 0;
+        while (scroller.computeScrollOffset()) {
+            position += scroller.getCurrX();
+            mClock.advance(FRAME_MILLIS);
+        }
+        return position;
+    }
+
+    /**
+     * Setup and every frame of a spring back from a quarter screen of overscroll
+     */
+    @Benchmark
+    public int springBackFrames() {
+        final OverScroller scroller = mScroller;
+        scroller.springBack(-VIEW_WIDTH / 4, 0, 0, mMaxContentOffset, 0, 0);
+        int position = 0;
+        while (scroller.computeScrollOffset()) {
+            position += scroller.getCurrX();
+            mClock.advance(FRAME_MILLIS);
+        }
+        return position;
+    }
+
+    /**
+     * The ACTION_UP correction that makes flings stop on a tick
+     */
+    @Benchmark
+    public void velocityCorrection(Blackhole blackhole) {
+        final int contentOffset = mMaxContentOffset / 2 + STEP_WIDTH / 3;
+        for (int velocity : mVelocities) {
+            blackhole.consume(FlingCorrection.correctVelocity(mScroller, mScaleModel, contentOffset, velocity, 0, mMaxContentOffset));
+        }
+    }
+
+    /**
+     * The ACTION_UP prediction of the tick a fling comes to rest on
+     */
+    @Benchmark
+    public void flingTarget(Blackhole blackhole) {
+        final int contentOffset = mMaxContentOffset / 2 + STEP_WIDTH / 3;
+        for (int velocity : mVelocities) {
+            blackhole.consume(FlingCorrection.getFlingTarget(mScroller, mScaleModel, contentOffset, velocity, 0, mMaxContentOffset));
+        }
+    }
+
+        private static class ManualClock implements AnimationClock {
+        private long mTime;
+
+        void advance(long millis) {
+            mTime += millis;
+        }
+
+        @Override
+        public long currentAnimationTimeMillis() {
+            return mTime;
+        }
+
+        @Override
+        public long currentAnimationTimeNanos() {
+            return mTime * 1000000L;
+        }
+    }
+}
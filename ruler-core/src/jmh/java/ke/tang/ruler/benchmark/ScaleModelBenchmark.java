@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import ke.tang.ruler.LinearScaleModel;
+import ke.tang.ruler.LogScaleModel;
+import ke.tang.ruler.ScaleModel;
+
+/**
+ * Value/offset mapping and visible range computation, called on every scroll and draw frame. The
+ * log model spans a million ticks to show the indexed lookups stay independent of the range size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScaleModelBenchmark {
+    private final static int VIEW_WIDTH = 1080;
+    private final static float LABEL_EXTENT = 40;
+    private final static int LOG_TICK_COUNT = 1000000;
+    private final static float LOG_OFFSET = 1000;
+
+    @Param({"10", "30"})
+    public int stepWidth;
+
+    @Param({"linear", "log"})
+    public String model;
+
+    private ScaleModel mScaleModel;
+    private int[] mContentOffsets;
+    private long[] mValues;
+    private long[] mScreenValues;
+    private int[] mScreenOffsets;
+
+    @Setup
+    public void setup() {
+        if ("log".equals(model)) {
+            mScaleModel = new LogScaleModel(stepWidth, 0, LOG_TICK_COUNT - 1, LOG_OFFSET);
+        } else {
+            mScaleModel = new LinearScaleModel(stepWidth, 0, ScaleModel.MAX_VALUE);
+        }
+        //One fling worth of offsets, mostly between ticks
+        mContentOffsets = new int[256];
+        mValues = new long[mContentOffsets.length];
+        final int maxContentOffset = mScaleModel.getContentOffsetForValue(mScaleModel.getMaxValue());
+        for (int index = 0; index < mContentOffsets.length; index++) {
+            mContentOffsets[index] = (int) ((long) maxContentOffset * index / mContentOffsets.length) + index % stepWidth;
+            mValues[index] = mScaleModel.getValueForContentOffset(mContentOffsets[index]);
+        }
+        //The ticks of one draw pass in the middle of the range
+        mScreenValues = new long[VIEW_WIDTH / stepWidth + 1];
+        mScreenOffsets = new int[mScreenValues.length];
+        final long firstScreenValue = mScaleModel.getValueForContentOffset(maxContentOffset / 2);
+        for (int index = 0; index < mScreenValues.length; index++) {
+            mScreenValues[index] = firstScreenValue + index;
+        }
+    }
+
+    @Benchmark
+    public void valueForContentOffset(Blackhole blackhole) {
+        final ScaleModel scaleModel = mScaleModel;
+        for (int contentOffset : mContentOffsets) {
+            blackhole.consume(scaleModel.getValueForContentOffset(contentOffset));
+        }
+    }
+
+    @Benchmark
+    public void contentOffsetForValue(Blackhole blackhole) {
+        final ScaleModel scaleModel = mScaleModel;
+        for (long value : mValues) {
+            blackhole.consume(scaleModel.getContentOffsetForValue(value));
+        }
+    }
+
+    @Benchmark
+    public int[] screenTickOffsets() {
+        final ScaleModel scaleModel = mScaleModel;
+        final long[] values = mScreenValues;
+        final int[] offsets = mScreenOffsets;
+        for (int index = 0; index < values.length; index++) {
+            offsets[index] = scaleModel.getContentOffsetForValue(values[index]);
+        }
+        return offsets;
+    }
+
+    @Benchmark
+    public int[] screenTickOffsetsBatched() {
+        mScaleModel.getContentOffsetsForValues(mScreenValues, mScreenOffsets, mScreenValues.length);
+        return mScreenOffsets;
+    }
+
+    @Benchmark
+    public void roundTrip(Blackhole blackhole) {
+        final ScaleModel scaleModel = mScaleModel;
+        for (int contentOffset : mContentOffsets) {
+            blackhole.consume(scaleModel.isOnTick(contentOffset)
+                    ? contentOffset
+                    : scaleModel.getContentOffsetForValue(scaleModel.getValueForContentOffset(contentOffset)));
+        }
+    }
+
+    @Benchmark
+    public void visibleRange(Blackhole blackhole) {
+        final ScaleModel scaleModel = mScaleModel;
+        final float halfWidth = VIEW_WIDTH / 2f;
+        for (int contentOffset : mContentOffsets) {
+            final float originX = halfWidth - contentOffset;
+            blackhole.consume(scaleModel.getFirstVisibleValue(originX, LABEL_EXTENT));
+            blackhole.consume(scaleModel.getLastVisibleValue(originX, VIEW_WIDTH, LABEL_EXTENT));
+        }
+    }
+}
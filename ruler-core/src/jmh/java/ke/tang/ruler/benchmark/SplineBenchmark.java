@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import ke.tang.ruler.OverScroller;
+import ke.tang.ruler.SplineReference;
+
+/**
+ * The float fast path of the fling conversions against the double precision implementation it
+ * replaced. OverScrollerSplineTest keeps the fast path within its error bounds, so the numbers are
+ * only reported for results that are interchangeable with the reference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SplineBenchmark {
+    private final static float FRICTION = 0.005f;
+
+    @Param({"2", "3"})
+    public float density;
+
+    private OverScroller mScroller;
+    private SplineReference mReference;
+    private int[] mVelocities;
+    private double[] mDistances;
+
+    @Setup
+    public void setup() {
+        mScroller = new OverScroller(density);
+        mScroller.setFriction(FRICTION);
+        mReference = new SplineReference(density, FRICTION);
+        mVelocities = new int[64];
+        mDistances = new double[mVelocities.length];
+        for (int index = 0; index < mVelocities.length; index++) {
+            final int magnitude = 200 + index * 300;
+            mVelocities[index] = 0 == index % 2 ? magnitude : -magnitude;
+            mDistances[index] = mReference.getSplineFlingDistance(mVelocities[index]) * Math.signum(mVelocities[index]);
+        }
+    }
+
+    @Benchmark
+    public void flingDistance(Blackhole blackhole) {
+        for (int velocity : mVelocities) {
+            blackhole.consume(mScroller.getSplineFlingDistance(velocity));
+        }
+    }
+
+    @Benchmark
+    public void flingDistanceReference(Blackhole blackhole) {
+        for (int velocity : mVelocities) {
+            blackhole.consume(mReference.getSplineFlingDistance(velocity));
+        }
+    }
+
+    @Benchmark
+    public void flingVelocity(Blackhole blackhole) {
+        for (double distance : mDistances) {
+            blackhole.consume(mScroller.getSplineFlingVelocity(distance));
+        }
+    }
+
+    @Benchmark
+    public void flingVelocityReference(Blackhole blackhole) {
+        for (double distance : mDistances) {
+            blackhole.consume(mReference.getSplineFlingVelocity(distance));
+        }
+    }
+
+    /**
+     * Distance, velocity and duration as one exact landing fling computes them
+     */
+    @Benchmark
+    public void flingTo(Blackhole blackhole) {
+        final OverScroller scroller = mScroller;
+        for (double distance : mDistances) {
+            scroller.flingTo(0, (int) distance);
+            blackhole.consume(scroller.getFinalX());
+        }
+    }
+
+    /**
+     * What every process paid on the first fling before the tables were generated at build time
+     */
+    @Benchmark
+    public Object solveReferenceTables() {
+        return new SplineReference(density, FRICTION);
+    }
+}
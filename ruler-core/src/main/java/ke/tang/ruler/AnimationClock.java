@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 动画时间源，Android上对应当前帧的{@code Choreographer}帧时间，JVM上可以替换为可控的时钟
+ * <p>
+ * 滚动动画按纳秒时间计算位置，高刷新率下帧间隔不是整数毫秒，只提供毫秒精度的时钟会让每帧的步长忽大忽小
+ */
+public interface AnimationClock {
+    /**
+     * 基于{@link System#nanoTime()}的单调时钟
+     */
+    AnimationClock SYSTEM = new AnimationClock() {
+        @Override
+        public long currentAnimationTimeMillis() {
+            return System.nanoTime() / 1000000;
+        }
+
+        @Override
+        public long currentAnimationTimeNanos() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * @return 当前动画时间，单位毫秒
+     */
+    long currentAnimationTimeMillis();
+
+    /**
+     * @return 当前动画时间，单位纳秒，与{@link #currentAnimationTimeMillis()}使用同一个时间基准
+     */
+    long currentAnimationTimeNanos();
+}
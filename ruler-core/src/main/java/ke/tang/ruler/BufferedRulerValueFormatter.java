@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 可以把格式化结果直接写入调用方提供的字符缓冲区的{@link RulerValueFormatter}
+ * <p>
+ * 标尺在滚动时会对每个新出现的刻度进行格式化，实现本接口后这一过程不会再创建{@link String}
+ */
+public interface BufferedRulerValueFormatter extends RulerValueFormatter {
+    /**
+     * 单个值格式化后的最大字符数
+     */
+    int MAX_LENGTH = 64;
+
+    /**
+     * 将值格式化后写入buffer
+     *
+     * @param value  当前的值
+     * @param buffer 字符缓冲区，从offset开始至少有{@link #MAX_LENGTH}个字符的空间
+     * @param offset 写入的起始位置
+     * @return 写入的字符数，不超过{@link #MAX_LENGTH}
+     */
+    int formatValue(int value, char[] buffer, int offset);
+}
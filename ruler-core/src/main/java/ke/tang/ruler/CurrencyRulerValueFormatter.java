@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * 货币金额，数值的单位为货币的最小单位（例如分），符号位置与小数位数遵循地区与货币的规则，例如{@code $1,234.50}
+ */
+public class CurrencyRulerValueFormatter extends NumberRulerValueFormatter {
+    /**
+     * 使用默认地区及其货币
+     */
+    public CurrencyRulerValueFormatter() {
+        this(Locale.getDefault());
+    }
+
+    /**
+     * 使用地区对应的货币，地区没有国家（例如{@link Locale#ENGLISH}）时无法确定货币，使用该地区货币格式自带的货币，
+     * 通常为代表未知货币的{@code XXX}，需要确定的货币时使用{@link #CurrencyRulerValueFormatter(int, int, Currency, Locale)}
+     */
+    public CurrencyRulerValueFormatter(Locale locale) {
+        this(1, 0, getDefaultCurrency(locale), locale);
+    }
+
+    /**
+     * @param multiple     每个刻度代表的金额，单位为货币的最小单位
+     * @param initialValue 值为0的刻度代表的金额，单位为货币的最小单位
+     */
+    public CurrencyRulerValueFormatter(int multiple, int initialValue, Currency currency, Locale locale) {
+        super(multiple, initialValue, Math.max(0, currency.getDefaultFractionDigits()), getCurrencyInstance(currency, locale), null);
+    }
+
+    private static Currency getDefaultCurrency(Locale locale) {
+        try {
+            return Currency.getInstance(locale);
+        } catch (IllegalArgumentException e) {
+            final Currency currency = NumberFormat.getCurrencyInstance(locale).getCurrency();
+            return null != currency ? currency : Currency.getInstance("XXX");
+        }
+    }
+
+    private static NumberFormat getCurrencyInstance(Currency currency, Locale locale) {
+        final NumberFormat format = NumberFormat.getCurrencyInstance(locale);
+        format.setCurrency(currency);
+        return format;
+    }
+}
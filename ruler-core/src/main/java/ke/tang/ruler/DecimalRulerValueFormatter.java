@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * 固定小数位数的数值，例如fractionDigits为1时值{@code 12345}显示为{@code 1,234.5}
+ */
+public class DecimalRulerValueFormatter extends NumberRulerValueFormatter {
+    public DecimalRulerValueFormatter(int fractionDigits) {
+        this(fractionDigits, Locale.getDefault());
+    }
+
+    public DecimalRulerValueFormatter(int fractionDigits, Locale locale) {
+        this(1, 0, fractionDigits, locale);
+    }
+
+    /**
+     * @param multiple       每个刻度代表的数值，单位为最小的小数位
+     * @param initialValue   值为0的刻度代表的数值，单位为最小的小数位
+     * @param fractionDigits 小数位数
+     */
+    public DecimalRulerValueFormatter(int multiple, int initialValue, int fractionDigits, Locale locale) {
+        super(multiple, initialValue, fractionDigits, NumberFormat.getNumberInstance(locale), null);
+    }
+}
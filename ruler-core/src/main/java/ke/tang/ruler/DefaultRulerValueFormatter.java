@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 默认格式化，直接显示值的十进制数字，结果与{@link String#valueOf(long)}相同
+ */
+public class DefaultRulerValueFormatter implements LongRulerValueFormatter {
+    @Override
+    public String formatValue(int value) {
+        return String.valueOf(value);
+    }
+
+    @Override
+    public String formatValue(long value) {
+        return String.valueOf(value);
+    }
+
+    @Override
+    public int formatValue(int value, char[] buffer, int offset) {
+        return formatValue((long) value, buffer, offset);
+    }
+
+    @Override
+    public int formatValue(long value, char[] buffer, int offset) {
+        return Digits.write(value, '0', '-', ',', 0, buffer, offset);
+    }
+}
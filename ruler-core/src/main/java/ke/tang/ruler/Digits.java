@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 不创建对象的整数转字符工具
+ */
+final class Digits {
+    private Digits() {
+    }
+
+    /**
+     * 将value的十进制表示写入buffer
+     *
+     * @param zeroDigit         数字0对应的字符，其余数字依次递增
+     * @param minusSign         负号
+     * @param groupingSeparator 分组分隔符
+     * @param groupingSize      每组数字的个数，小于1时不分组
+     * @return 写入的字符数
+     */
+    static int write(long value, char zeroDigit, char minusSign, char groupingSeparator, int groupingSize,
+                     char[] buffer, int offset) {
+        int length = 0;
+        if (value < 0) {
+            buffer[offset] = minusSign;
+            length++;
+        }
+        return length + writeMagnitude(value, 0, zeroDigit, '.', groupingSeparator, groupingSize, groupingSize,
+                buffer, offset + length);
+    }
+
+    /**
+     * 将value的绝对值按定点小数写入buffer，value的最后fractionDigits位为小数部分
+     *
+     * @param fractionDigits        小数位数，小数部分总是写满该位数
+     * @param zeroDigit             数字0对应的字符，其余数字依次递增
+     * @param decimalSeparator      小数点
+     * @param groupingSeparator     分组分隔符
+     * @param primaryGroupingSize   最靠近小数点的一组数字的个数，小于1时不分组
+     * @param secondaryGroupingSize 其余每组数字的个数
+     * @return 写入的字符数
+     */
+    static int writeMagnitude(long value, int fractionDigits, char zeroDigit, char decimalSeparator,
+                              char groupingSeparator, int primaryGroupingSize, int secondaryGroupingSize,
+                              char[] buffer, int offset) {
+        //Work on the negative magnitude so Long.MIN_VALUE does not overflow
+        long remaining = value > 0 ? -value : value;
+        int digitCount = 0;
+        for (long probe = remaining; probe != 0; probe /= 10) {
+            digitCount++;
+        }
+        final int integerDigitCount = Math.max(1, digitCount - fractionDigits);
+        int separatorCount = 0;
+        if (primaryGroupingSize > 0 && integerDigitCount > primaryGroupingSize) {
+            separatorCount = 1 + (integerDigitCount - primaryGroupingSize - 1) / Math.max(1, secondaryGroupingSize);
+        }
+        final int length = integerDigitCount + separatorCount + (fractionDigits > 0 ? 1 + fractionDigits : 0);
+
+        int position = offset + length;
+        for (int index = 0; index < fractionDigits; index++) {
+            buffer[--position] = (char) (zeroDigit - (int) (remaining % 10));
+            remaining /= 10;
+        }
+        if (fractionDigits > 0) {
+            buffer[--position] = decimalSeparator;
+        }
+        int groupSize = primaryGroupingSize;
+        int digitsInGroup = 0;
+        for (int index = 0; index < integerDigitCount; index++) {
+            if (primaryGroupingSize > 0 && digitsInGroup == groupSize) {
+                buffer[--position] = groupingSeparator;
+                groupSize = Math.max(1, secondaryGroupingSize);
+                digitsInGroup = 0;
+            }
+            buffer[--position] = (char) (zeroDigit - (int) (remaining % 10));
+            remaining /= 10;
+            digitsInGroup++;
+        }
+        return length;
+    }
+}
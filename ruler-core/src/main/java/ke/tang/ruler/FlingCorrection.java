@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 矫正Fling速度，让滚动最后始终停留在具体的刻度上
+ */
+public final class FlingCorrection {
+    private FlingCorrection() {
+    }
+
+    /**
+     * 根据{@link OverScroller}的样条曲线预测Fling终点，将终点吸附到最近的刻度后反推需要的速度
+     *
+     * @param scroller         执行Fling的滚动器
+     * @param scaleModel       刻度模型
+     * @param contentOffset    当前内容偏移
+     * @param velocity         原始速度，像素每秒
+     * @param minContentOffset 最小内容偏移
+     * @param maxContentOffset 最大内容偏移
+     * @return 矫正后的速度，终点超出范围时返回原始速度
+     */
+    public static int correctVelocity(OverScroller scroller, ScaleModel scaleModel, int contentOffset, int velocity,
+                                      int minContentOffset, int maxContentOffset) {
+        final int flingOffset = (int) scroller.getSplineFlingDistance(velocity);
+        final int targetOffset = contentOffset + flingOffset;
+        if (targetOffset >= minContentOffset && targetOffset <= maxContentOffset) {
+            return scroller.getSplineFlingVelocity(scaleModel.getContentOffsetForValue(scaleModel.getValueForContentOffset(targetOffset)) - contentOffset);
+        }
+        return velocity;
+    }
+
+    /**
+     * 根据{@link OverScroller}的样条曲线预测Fling终点，并吸附到最近的刻度，配合{@link OverScroller#flingTo(int, int)}
+     * 一次滑动即可精确停在刻度上，不需要速度取整后再补一段吸附动画
+     *
+     * @param scroller         执行Fling的滚动器
+     * @param scaleModel       刻度模型
+     * @param contentOffset    当前内容偏移
+     * @param velocity         原始速度，像素每秒
+     * @param minContentOffset 最小内容偏移
+     * @param maxContentOffset 最大内容偏移
+     * @return 刻度对齐的终点，预测的终点超出范围时返回{@link Integer#MIN_VALUE}，此时应使用带回弹的普通Fling
+     */
+    public static int getFlingTarget(OverScroller scroller, ScaleModel scaleModel, int contentOffset, int velocity,
+                                     int minContentOffset, int maxContentOffset) {
+        final long targetOffset = contentOffset + (long) scroller.getSplineFlingDistance(velocity);
+        if (targetOffset < minContentOffset || targetOffset > maxContentOffset) {
+            return Integer.MIN_VALUE;
+        }
+        final int tickOffset = scaleModel.getContentOffsetForValue(scaleModel.getValueForContentOffset((int) targetOffset));
+        return Math.max(minContentOffset, Math.min(tickOffset, maxContentOffset));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * 按地区分组规则显示的整数，例如{@code 1,234,567}，印度地区为{@code 12,34,567}
+ */
+public class GroupedRulerValueFormatter extends NumberRulerValueFormatter {
+    public GroupedRulerValueFormatter() {
+        this(Locale.getDefault());
+    }
+
+    public GroupedRulerValueFormatter(Locale locale) {
+        this(1, 0, locale);
+    }
+
+    /**
+     * @param multiple     每个刻度代表的数值
+     * @param initialValue 值为0的刻度代表的数值
+     */
+    public GroupedRulerValueFormatter(int multiple, int initialValue, Locale locale) {
+        super(multiple, initialValue, 0, NumberFormat.getIntegerInstance(locale), null);
+    }
+}
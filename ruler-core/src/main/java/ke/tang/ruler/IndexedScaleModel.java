@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 非均匀刻度模型，每个间距由{@link #getStepWeight(long)}决定
+ * <p>
+ * 取值范围变化后预先计算每个刻度的累计位置，值到内容偏移的换算为O(1)，内容偏移到值以及可见范围的换算为二分查找，
+ * 每帧的开销只与可见刻度的数量有关。步长变化只缩放索引，不需要重建。原点超出取值范围时按最近的边界计算
+ * <p>
+ * 索引每个刻度占用8字节，取值范围最多包含{@link #MAX_TICK_COUNT}个刻度，即8MB，设置更大的范围时直接抛出异常
+ */
+public abstract class IndexedScaleModel extends ScaleModel {
+    /**
+     * 索引支持的最大刻度数量
+     */
+    public final static int MAX_TICK_COUNT = 1 << 20;
+
+    /**
+     * Positions are clamped to this so differences between them never overflow
+     */
+    private final static long MAX_POSITION = 4L * MAX_CONTENT_OFFSET;
+
+    /**
+     * Cumulative weight of the ticks before minValue + index, in step widths
+     */
+    private double[] mPositions;
+    private long mIndexedMinValue;
+    private boolean mIndexValid;
+
+    public IndexedScaleModel() {
+    }
+
+    public IndexedScaleModel(int stepWidth, long minValue, long maxValue) {
+        super(stepWidth, minValue, maxValue);
+    }
+
+    /**
+     * 刻度value与value + 1之间的相对间距，实际的像素间距为该值乘以stepWidth
+     *
+     * @param value 间距左侧的刻度值，介于[minValue, maxValue)之间
+     * @return 不小于0的相对间距，为0时两个刻度重合
+     */
+    protected abstract float getStepWeight(long value);
+
+    /**
+     * 子类的间距规则变化后调用，下次换算时重建索引
+     */
+    protected void invalidateIndex() {
+        mIndexValid = false;
+    }
+
+    @Override
+    protected void checkRange(long minValue, long maxValue) {
+        //Rejected where the range is set, the index is only built on the first lookup in a draw pass
+        final long span = maxValue - minValue;
+        if (span < 0 || span >= MAX_TICK_COUNT) {
+            throw new IllegalArgumentException("刻度数量不能超过" + MAX_TICK_COUNT);
+        }
+    }
+
+    @Override
+    protected void onScaleChanged() {
+        //The step width only scales the index, it is rebuilt only when the range moves
+        if (null == mPositions || mIndexedMinValue != getMinValue() || mPositions.length - 1 != getMaxValue() - getMinValue()) {
+            mIndexValid = false;
+        }
+    }
+
+    @Override
+    public long getValueForContentOffset(int contentOffset) {
+        final double[] positions = ensureIndex();
+        final long target = getPosition(positions, getOriginValue()) + contentOffset;
+        final int index = search(positions, target, false);
+        if (0 == index) {
+            return getMinValue();
+        } else if (positions.length == index) {
+            return getMaxValue();
+        }
+        final long before = positionAt(positions, index - 1);
+        final long after = positionAt(positions, index);
+        return getMinValue() + (after - target <= target - before ? index : index - 1);
+    }
+
+    @Override
+    public int getContentOffsetForValue(long value) {
+        final double[] positions = ensureIndex();
+        return saturateContentOffset(getPosition(positions, value) - getPosition(positions, getOriginValue()));
+    }
+
+    @Override
+    public void getContentOffsetsForValues(long[] values, int[] offsets, int count) {
+        final double[] positions = ensureIndex();
+        final long originPosition = getPosition(positions, getOriginValue());
+        final long minValue = getMinValue();
+        final long maxValue = getMaxValue();
+        final double stepWidth = getExactStepWidth();
+        for (int index = 0; index < count; index++) {
+            final long value = values[index];
+            //Same as positionAt with the range checks and the step width hoisted out of the loop
+            final long position = value >= minValue && value <= maxValue
+                    ? Math.min(Math.round(positions[(int) (value - minValue)] * stepWidth), MAX_POSITION)
+                    : getPosition(positions, value);
+            offsets[index] = saturateContentOffset(position - originPosition);
+        }
+    }
+
+    @Override
+    public long getFirstVisibleValue(float originX, float extent) {
+        final double[] positions = ensureIndex();
+        final double start = getPosition(positions, getOriginValue()) - (double) originX - extent;
+        //First tick strictly right of start
+        return getMinValue() + search(positions, (long) Math.floor(start), false);
+    }
+
+    @Override
+    public long getLastVisibleValue(float originX, float width, float extent) {
+        final double[] positions = ensureIndex();
+        final double end = getPosition(positions, getOriginValue()) + (double) width - originX + extent;
+        //Last tick strictly left of end
+        return getMinValue() + search(positions, (long) Math.ceil(end), true) - 1;
+    }
+
+    private double[] ensureIndex() {
+        if (!mIndexValid) {
+            final long minValue = getMinValue();
+            //The span was checked by checkRange when the range was set
+            final int count = (int) (getMaxValue() - minValue) + 1;
+            double[] positions = mPositions;
+            if (null == positions || positions.length != count) {
+                positions = new double[count];
+            }
+            double position = 0;
+            for (int index = 1; index < count; index++) {
+                final float weight = getStepWeight(minValue + index - 1);
+                if (!(weight >= 0)) {
+                    throw new IllegalArgumentException("刻度间距不能小于0: " + weight);
+                }
+                position += weight;
+                positions[index] = position;
+            }
+            mPositions = positions;
+            mIndexedMinValue = minValue;
+            mIndexValid = true;
+        }
+        return mPositions;
+    }
+
+    private long positionAt(double[] positions, int index) {
+        return Math.min(Math.round(positions[index] * getExactStepWidth()), MAX_POSITION);
+    }
+
+    /**
+     * @return position of value in pixels relative to minValue, values outside of the range keep
+     * the spacing of stepWidth
+     */
+    private long getPosition(double[] positions, long value) {
+        final double stepWidth = getExactStepWidth();
+        if (value < getMinValue()) {
+            final long distance = getMinValue() - value;
+            return distance < 0 || distance > MAX_POSITION / stepWidth ? -MAX_POSITION : -Math.round(distance * stepWidth);
+        }
+        final long lastPosition = positionAt(positions, positions.length - 1);
+        if (value > getMaxValue()) {
+            final long distance = value - getMaxValue();
+            return distance < 0 || distance > MAX_POSITION / stepWidth ? 2 * MAX_POSITION : lastPosition + Math.round(distance * stepWidth);
+        }
+        return positionAt(positions, (int) (value - getMinValue()));
+    }
+
+    /**
+     * @return the first index whose position is greater than position, or equal to it as well when
+     * inclusive, positions.length if there is none
+     */
+    private int search(double[] positions, long position, boolean inclusive) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final long middlePosition = positionAt(positions, middle);
+            if (middlePosition > position || inclusive && middlePosition == position) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
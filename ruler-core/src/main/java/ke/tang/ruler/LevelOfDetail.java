@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 缩小时的刻度细节层级，根据刻度间距选择每隔多少个刻度绘制一次刻度线与标签，让每帧绘制的数量只与可见宽度有关
+ * <p>
+ * 刻度步进优先取每段刻度数的约数，仍然过密时只绘制段首刻度，并按1、2、5、10、20、50…倍跳过整段。标签步进始终是刻度步进的倍数
+ */
+public final class LevelOfDetail {
+    private LevelOfDetail() {
+    }
+
+    /**
+     * 选择刻度步进
+     *
+     * @param spacing           相邻刻度之间的像素间距
+     * @param sectionScaleCount 每段的刻度数
+     * @param minSpacing        绘制出的刻度之间的最小像素间距
+     * @return 每隔多少个值绘制一个刻度，不小于1
+     */
+    public static long getTickStride(float spacing, int sectionScaleCount, float minSpacing) {
+        if (spacing >= minSpacing) {
+            return 1;
+        }
+        sectionScaleCount = Math.max(1, sectionScaleCount);
+        for (int divisor = 2; divisor <= sectionScaleCount; divisor++) {
+            if (0 == sectionScaleCount % divisor && spacing * divisor >= minSpacing) {
+                return divisor;
+            }
+        }
+        return getSectionStride(spacing, sectionScaleCount, 1, minSpacing);
+    }
+
+    /**
+     * 选择标签步进
+     *
+     * @param spacing           相邻刻度之间的像素间距
+     * @param sectionScaleCount 每段的刻度数
+     * @param tickStride        {@link #getTickStride(float, int, float)}的结果
+     * @param minSpacing        标签之间的最小像素间距，一般为最宽的标签加上间隙
+     * @return 每隔多少个值绘制一个标签，总是每段刻度数与刻度步进的公倍数
+     */
+    public static long getLabelStride(float spacing, int sectionScaleCount, long tickStride, float minSpacing) {
+        sectionScaleCount = Math.max(1, sectionScaleCount);
+        final long sections = tickStride > sectionScaleCount ? tickStride / sectionScaleCount : 1;
+        return getSectionStride(spacing, sectionScaleCount, sections, minSpacing);
+    }
+
+    /**
+     * @return 不小于from的第一个需要绘制的刻度值，minValue总是需要绘制
+     */
+    public static long getFirstTickValue(long from, long stride, long minValue, long maxValue) {
+        if (from <= minValue) {
+            return minValue;
+        }
+        final long base = from - MathUtils.floorMod(from, stride);
+        if (base == from) {
+            return Math.min(from, maxValue);
+        }
+        final long next = base + stride;
+        return next < base || next > maxValue ? maxValue : next;
+    }
+
+    /**
+     * @return value之后下一个需要绘制的刻度值，maxValue总是需要绘制，value不小于maxValue时返回maxValue
+     */
+    public static long getNextTickValue(long value, long stride, long maxValue) {
+        if (value >= maxValue) {
+            return maxValue;
+        }
+        final long base = value - MathUtils.floorMod(value, stride);
+        final long next = base + stride;
+        return next < base || next > maxValue ? maxValue : next;
+    }
+
+    /**
+     * @return value是否为stride的整数倍
+     */
+    public static boolean isMultiple(long value, long stride) {
+        return 0 == MathUtils.floorMod(value, stride);
+    }
+
+    /**
+     * Smallest sectionScaleCount * k with k in 1, 2, 5, 10, 20, 50... a multiple of sections and
+     * spacing * stride at least minSpacing
+     */
+    private static long getSectionStride(float spacing, int sectionScaleCount, long sections, float minSpacing) {
+        long multiple = 1;
+        int mantissa = 0;
+        final long limit = Long.MAX_VALUE / 10 / sectionScaleCount;
+        while (multiple <= limit) {
+            final long stride = sectionScaleCount * multiple;
+            if (0 == multiple % sections && (double) spacing * stride >= minSpacing) {
+                return stride;
+            }
+            //1, 2, 5, 10, 20, 50...
+            multiple = 1 == mantissa ? multiple / 2 * 5 : multiple * 2;
+            mantissa = (mantissa + 1) % 3;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 均匀刻度模型，相邻刻度之间始终相距stepWidth像素，步长为小数时刻度的内容偏移四舍五入到整数像素
+ */
+public class LinearScaleModel extends ScaleModel {
+    public LinearScaleModel() {
+    }
+
+    public LinearScaleModel(int stepWidth, long minValue, long maxValue) {
+        super(stepWidth, minValue, maxValue);
+    }
+
+    @Override
+    public long getValueForContentOffset(int contentOffset) {
+        final long originValue = getOriginValue();
+        final long steps;
+        if (isIntegralStepWidth()) {
+            final int stepWidth = getStepWidth();
+            //Integer half-up rounding, same as Math.round(contentOffset / stepWidth) without the float error
+            steps = MathUtils.floorDiv((long) contentOffset + stepWidth / 2, stepWidth);
+        } else {
+            steps = getNearestStep(contentOffset, getExactStepWidth());
+        }
+        final long value = originValue + steps;
+        //Saturate instead of wrapping when the origin sits at the edge of the long range
+        if (steps > 0 && value < originValue) {
+            return getMaxValue();
+        } else if (steps < 0 && value > originValue) {
+            return getMinValue();
+        }
+        return clampValue(value);
+    }
+
+    @Override
+    public int getContentOffsetForValue(long value) {
+        final float stepWidth = getExactStepWidth();
+        final long originValue = getOriginValue();
+        final long relativeValue = value - originValue;
+        //The subtraction overflowed, the value is beyond any representable offset
+        if ((value ^ originValue) < 0 && (value ^ relativeValue) < 0) {
+            return value > originValue ? MAX_CONTENT_OFFSET : -MAX_CONTENT_OFFSET;
+        }
+        final double maxRelativeValue = MAX_CONTENT_OFFSET / (double) stepWidth;
+        if (relativeValue > maxRelativeValue) {
+            return MAX_CONTENT_OFFSET;
+        } else if (relativeValue < -maxRelativeValue) {
+            return -MAX_CONTENT_OFFSET;
+        }
+        if (isIntegralStepWidth()) {
+            return (int) relativeValue * (int) stepWidth;
+        }
+        return (int) getTickOffset(relativeValue, stepWidth);
+    }
+
+    @Override
+    public void getContentOffsetsForValues(long[] values, int[] offsets, int count) {
+        if (count <= 0) {
+            return;
+        }
+        //The values are ascending, when neither end saturates no value in between does and the
+        //distances to the origin all fit an int
+        final int firstOffset = getContentOffsetForValue(values[0]);
+        final int lastOffset = getContentOffsetForValue(values[count - 1]);
+        if (-MAX_CONTENT_OFFSET == firstOffset || MAX_CONTENT_OFFSET == lastOffset) {
+            super.getContentOffsetsForValues(values, offsets, count);
+            return;
+        }
+        final long originValue = getOriginValue();
+        if (isIntegralStepWidth()) {
+            final int stepWidth = getStepWidth();
+            for (int index = 0; index < count; index++) {
+                offsets[index] = (int) (values[index] - originValue) * stepWidth;
+            }
+        } else {
+            final double stepWidth = getExactStepWidth();
+            for (int index = 0; index < count; index++) {
+                offsets[index] = (int) getTickOffset(values[index] - originValue, stepWidth);
+            }
+        }
+    }
+
+    @Override
+    public boolean isOnTick(int contentOffset) {
+        return isIntegralStepWidth() ? 0 == contentOffset % getStepWidth() : super.isOnTick(contentOffset);
+    }
+
+    @Override
+    public long getFirstVisibleValue(float originX, float extent) {
+        //Rounded tick offsets are up to half a pixel off the exact ones
+        final float slack = isIntegralStepWidth() ? 0 : 0.5f;
+        return Math.max(getMinValue(), getOriginValue() + (long) Math.floor((-originX - extent - slack) / getExactStepWidth()) + 1);
+    }
+
+    @Override
+    public long getLastVisibleValue(float originX, float width, float extent) {
+        final float slack = isIntegralStepWidth() ? 0 : 0.5f;
+        return Math.min(getMaxValue(), getOriginValue() + (long) Math.ceil((width - originX + extent + slack) / getExactStepWidth()) - 1);
+    }
+
+    /**
+     * @return offset of the tick steps away from the origin with a fractional step width
+     */
+    private static long getTickOffset(long steps, double stepWidth) {
+        return Math.round(steps * stepWidth);
+    }
+
+    /**
+     * The estimate from the exact division is corrected against the rounded offsets of the
+     * neighbouring ticks, ties go to the larger step
+     */
+    private static long getNearestStep(int contentOffset, double stepWidth) {
+        long steps = (long) Math.floor(contentOffset / stepWidth + 0.5);
+        while (getTickOffset(steps + 1, stepWidth) - contentOffset <= contentOffset - getTickOffset(steps, stepWidth)) {
+            steps++;
+        }
+        while (contentOffset - getTickOffset(steps - 1, stepWidth) < getTickOffset(steps, stepWidth) - contentOffset) {
+            steps--;
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 对数刻度模型，刻度的位置与{@code ln(value - minValue + offset)}成正比
+ * <p>
+ * 第一个间距为stepWidth，之后的间距逐渐变小，offset越大变小得越慢
+ */
+public class LogScaleModel extends IndexedScaleModel {
+    public final static float DEFAULT_OFFSET = 10;
+
+    private float mOffset;
+    private double mFirstWeight;
+
+    public LogScaleModel() {
+        setOffset(DEFAULT_OFFSET);
+    }
+
+    public LogScaleModel(int stepWidth, long minValue, long maxValue, float offset) {
+        super(stepWidth, minValue, maxValue);
+        setOffset(offset);
+    }
+
+    public float getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @param offset 对数的偏移，必须大于0
+     */
+    public void setOffset(float offset) {
+        if (!(offset > 0)) {
+            throw new IllegalArgumentException("偏移必须大于0: " + offset);
+        }
+        mOffset = offset;
+        mFirstWeight = Math.log1p(1.0 / offset);
+        invalidateIndex();
+    }
+
+    @Override
+    protected float getStepWeight(long value) {
+        return (float) (Math.log1p(1.0 / (value - getMinValue() + mOffset)) / mFirstWeight);
+    }
+}
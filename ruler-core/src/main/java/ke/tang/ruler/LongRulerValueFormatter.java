@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 支持long取值的{@link BufferedRulerValueFormatter}
+ * <p>
+ * 标尺的取值超出int范围时只会通过本接口格式化，未实现本接口的格式化在此时会被直接显示十进制数字代替
+ */
+public interface LongRulerValueFormatter extends BufferedRulerValueFormatter {
+    /**
+     * 当标尺需要显示一个值的时候调用该方法获取格式化后的值
+     *
+     * @param value 当前的值
+     * @return 当前值对应的文本
+     */
+    String formatValue(long value);
+
+    /**
+     * 将值格式化后写入buffer
+     *
+     * @param value  当前的值
+     * @param buffer 字符缓冲区，从offset开始至少有{@link #MAX_LENGTH}个字符的空间
+     * @param offset 写入的起始位置
+     * @return 写入的字符数，不超过{@link #MAX_LENGTH}
+     */
+    int formatValue(long value, char[] buffer, int offset);
+}
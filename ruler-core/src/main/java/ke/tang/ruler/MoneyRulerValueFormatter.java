@@ -15,27 +15,18 @@
  */
 package ke.tang.ruler;
 
-import java.text.DecimalFormat;
+import java.util.Locale;
 
 /**
  * Created by TangKe on 2017/3/24.
  */
 
-public class MoneyRulerValueFormatter implements RulerValueFormatter {
-    private int mMultiple = 500;
-    private int mInitialValue = 0;
-    private DecimalFormat mDecimalFormat = new DecimalFormat(",###");
-
+public class MoneyRulerValueFormatter extends GroupedRulerValueFormatter {
     public MoneyRulerValueFormatter() {
+        this(500, 0);
     }
 
     public MoneyRulerValueFormatter(int multiple, int initialValue) {
-        mMultiple = multiple;
-        mInitialValue = initialValue;
-    }
-
-    @Override
-    public String formatValue(int value) {
-        return mDecimalFormat.format(mInitialValue + value * mMultiple);
+        super(multiple, initialValue, Locale.getDefault());
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+
+/**
+ * 基于定点小数的格式化基类，显示的数值为{@code (initialValue + value * multiple) / 10^fractionDigits}
+ * <p>
+ * 分组规则、数字、小数点以及正负数的前后缀在构造时从对应的{@link DecimalFormat}中读取一次，格式化时只做整数运算，
+ * 不创建对象。实例不可变，可以在多个线程和多个标尺之间共享
+ * <p>
+ * 计算结果超出long范围的值无法表示，直接显示值本身的十进制数字，与{@link DefaultRulerValueFormatter}相同
+ */
+public abstract class NumberRulerValueFormatter implements LongRulerValueFormatter {
+    /**
+     * long的十进制最多19位，加上分组分隔符与小数点
+     */
+    private final static int MAX_NUMBER_LENGTH = 19 + 18 + 1;
+    /**
+     * 小数位数的上限，超过long的位数后数值写作{@code 0.}加小数位，不能超出{@link #MAX_NUMBER_LENGTH}
+     */
+    public final static int MAX_FRACTION_DIGITS = MAX_NUMBER_LENGTH - 2;
+
+    private final int mMultiple;
+    private final int mInitialValue;
+    private final int mFractionDigits;
+    /**
+     * 绝对值不超过该值的刻度值与multiple相乘不会溢出
+     */
+    private final long mMaxSafeValue;
+
+    private final char mZeroDigit;
+    private final char mDecimalSeparator;
+    private final char mGroupingSeparator;
+    private final int mPrimaryGroupingSize;
+    private final int mSecondaryGroupingSize;
+
+    private final char[] mPositivePrefix;
+    private final char[] mPositiveSuffix;
+    private final char[] mNegativePrefix;
+    private final char[] mNegativeSuffix;
+
+    /**
+     * @param multiple       每个刻度代表的数值
+     * @param initialValue   值为0的刻度代表的数值
+     * @param fractionDigits 小数位数，从0到{@link #MAX_FRACTION_DIGITS}
+     * @param format         提供符号、分组规则与前后缀的格式，只在构造时读取
+     * @param unit           追加在数值之后的单位，可以为null
+     */
+    protected NumberRulerValueFormatter(int multiple, int initialValue, int fractionDigits, NumberFormat format, String unit) {
+        if (fractionDigits < 0 || fractionDigits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("小数位数需要介于0和" + MAX_FRACTION_DIGITS + "之间: " + fractionDigits);
+        }
+        mMultiple = multiple;
+        mInitialValue = initialValue;
+        mFractionDigits = fractionDigits;
+        mMaxSafeValue = 0 == multiple ? Long.MAX_VALUE : Long.MAX_VALUE / Math.abs((long) multiple);
+
+        final DecimalFormat decimalFormat = format instanceof DecimalFormat ? (DecimalFormat) format : new DecimalFormat();
+        final DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        final boolean monetary = decimalFormat.toPattern().indexOf('\u00A4') >= 0;
+        mZeroDigit = symbols.getZeroDigit();
+        mDecimalSeparator = monetary ? symbols.getMonetaryDecimalSeparator() : symbols.getDecimalSeparator();
+        mGroupingSeparator = symbols.getGroupingSeparator();
+        mPrimaryGroupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+        mSecondaryGroupingSize = getSecondaryGroupingSize(decimalFormat.toPattern(), mPrimaryGroupingSize);
+
+        final String suffix = null == unit ? "" : unit;
+        mPositivePrefix = decimalFormat.getPositivePrefix().toCharArray();
+        mPositiveSuffix = (decimalFormat.getPositiveSuffix() + suffix).toCharArray();
+        mNegativePrefix = decimalFormat.getNegativePrefix().toCharArray();
+        mNegativeSuffix = (decimalFormat.getNegativeSuffix() + suffix).toCharArray();
+        final int maxAffixLength = Math.max(mPositivePrefix.length + mPositiveSuffix.length, mNegativePrefix.length + mNegativeSuffix.length);
+        if (maxAffixLength + MAX_NUMBER_LENGTH > MAX_LENGTH) {
+            throw new IllegalArgumentException("前后缀过长: " + maxAffixLength);
+        }
+    }
+
+    /**
+     * 从格式的模式中读取第二分组的大小，例如印度的{@code #,##,##0.###}为2，模式中只有一个分组时与第一分组相同
+     */
+    private static int getSecondaryGroupingSize(String pattern, int primaryGroupingSize) {
+        final int separator = pattern.indexOf(';');
+        final String positivePattern = separator >= 0 ? pattern.substring(0, separator) : pattern;
+        int integerEnd = positivePattern.indexOf('.');
+        if (integerEnd < 0) {
+            integerEnd = positivePattern.length();
+        }
+        final int lastGrouping = positivePattern.lastIndexOf(',', integerEnd);
+        final int previousGrouping = lastGrouping > 0 ? positivePattern.lastIndexOf(',', lastGrouping - 1) : -1;
+        if (previousGrouping < 0) {
+            return primaryGroupingSize;
+        }
+        int digitCount = 0;
+        for (int index = previousGrouping + 1; index < lastGrouping; index++) {
+            final char c = positivePattern.charAt(index);
+            if ('#' == c || '0' == c) {
+                digitCount++;
+            }
+        }
+        return digitCount > 0 ? digitCount : primaryGroupingSize;
+    }
+
+    public int getMultiple() {
+        return mMultiple;
+    }
+
+    public int getInitialValue() {
+        return mInitialValue;
+    }
+
+    public int getFractionDigits() {
+        return mFractionDigits;
+    }
+
+    @Override
+    public String formatValue(int value) {
+        return formatValue((long) value);
+    }
+
+    @Override
+    public String formatValue(long value) {
+        final char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, formatValue(value, buffer, 0));
+    }
+
+    @Override
+    public int formatValue(int value, char[] buffer, int offset) {
+        return formatValue((long) value, buffer, offset);
+    }
+
+    @Override
+    public int formatValue(long value, char[] buffer, int offset) {
+        final long product = value * mMultiple;
+        final long number = product + mInitialValue;
+        //Overflow of the product is checked by division only outside of the always safe range, a
+        //multiple of 0 never overflows. Overflow of the sum iff both arguments have the opposite
+        //sign of the result
+        if ((0 != mMultiple && (value > mMaxSafeValue || value < -mMaxSafeValue) && (product / mMultiple != value || (Long.MIN_VALUE == value && -1 == mMultiple)))
+                || ((product ^ number) & (mInitialValue ^ number)) < 0) {
+            return Digits.write(value, '0', '-', ',', 0, buffer, offset);
+        }
+        final char[] prefix = number < 0 ? mNegativePrefix : mPositivePrefix;
+        final char[] suffix = number < 0 ? mNegativeSuffix : mPositiveSuffix;
+        int position = offset;
+        System.arraycopy(prefix, 0, buffer, position, prefix.length);
+        position += prefix.length;
+        position += Digits.writeMagnitude(number, mFractionDigits, mZeroDigit, mDecimalSeparator, mGroupingSeparator,
+                mPrimaryGroupingSize, mSecondaryGroupingSize, buffer, position);
+        System.arraycopy(suffix, 0, buffer, position, suffix.length);
+        position += suffix.length;
+        return position - offset;
+    }
+}
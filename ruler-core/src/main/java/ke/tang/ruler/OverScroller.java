@@ -16,112 +16,73 @@
 
 package ke.tang.ruler;
 
-import android.content.Context;
-import android.hardware.SensorManager;
-import android.util.Log;
-import android.view.ViewConfiguration;
-import android.view.animation.AnimationUtils;
-import android.view.animation.Interpolator;
-
 /**
  * This class encapsulates scrolling with the ability to overshoot the bounds
  * of a scrolling operation. This class is a drop-in replacement for
- * {@link android.widget.Scroller} in most cases.
+ * {@code android.widget.Scroller} in most cases.
+ * <p>
+ * Unlike the framework class it does not depend on a {@code Context}, the screen density and the
+ * {@link AnimationClock} are injected so the physics can run on a plain JVM.
  */
-class OverScroller {
+public class OverScroller {
     private int mMode;
 
     private final SplineOverScroller mScrollerX;
     private final SplineOverScroller mScrollerY;
 
-    private Interpolator mInterpolator;
+    private final AnimationClock mClock;
+
+    private ScrollInterpolator mInterpolator;
 
     private final boolean mFlywheel;
 
     private static final int DEFAULT_DURATION = 250;
     private static final int SCROLL_MODE = 0;
     private static final int FLING_MODE = 1;
+    private static final float NANOS_PER_MILLI = 1000000f;
 
     /**
-     * Creates an OverScroller with a viscous fluid scroll interpolator and flywheel.
+     * Creates an OverScroller with a viscous fluid scroll interpolator and flywheel, driven by the
+     * system clock.
      *
-     * @param context
+     * @param density The logical density of the display, 1 for 160dpi.
      */
-    public OverScroller(Context context) {
-        this(context, null);
+    public OverScroller(float density) {
+        this(density, AnimationClock.SYSTEM);
     }
 
     /**
-     * Creates an OverScroller with flywheel enabled.
+     * Creates an OverScroller with a viscous fluid scroll interpolator and flywheel.
      *
-     * @param context      The context of this application.
-     * @param interpolator The scroll interpolator. If null, a default (viscous) interpolator will
-     *                     be used.
+     * @param density The logical density of the display, 1 for 160dpi.
+     * @param clock   The time source of the animations.
      */
-    public OverScroller(Context context, Interpolator interpolator) {
-        this(context, interpolator, true);
+    public OverScroller(float density, AnimationClock clock) {
+        this(density, clock, null, true);
     }
 
     /**
      * Creates an OverScroller.
      *
-     * @param context      The context of this application.
+     * @param density      The logical density of the display, 1 for 160dpi.
+     * @param clock        The time source of the animations.
      * @param interpolator The scroll interpolator. If null, a default (viscous) interpolator will
      *                     be used.
      * @param flywheel     If true, successive fling motions will keep on increasing scroll speed.
-     * @hide
      */
-    public OverScroller(Context context, Interpolator interpolator, boolean flywheel) {
+    public OverScroller(float density, AnimationClock clock, ScrollInterpolator interpolator, boolean flywheel) {
         if (interpolator == null) {
             mInterpolator = new ViscousFluidInterpolator();
         } else {
             mInterpolator = interpolator;
         }
+        mClock = clock;
         mFlywheel = flywheel;
-        mScrollerX = new SplineOverScroller(context);
-        mScrollerY = new SplineOverScroller(context);
+        mScrollerX = new SplineOverScroller(density, clock);
+        mScrollerY = new SplineOverScroller(density, clock);
     }
 
-    /**
-     * Creates an OverScroller with flywheel enabled.
-     *
-     * @param context            The context of this application.
-     * @param interpolator       The scroll interpolator. If null, a default (viscous) interpolator will
-     *                           be used.
-     * @param bounceCoefficientX A value between 0 and 1 that will determine the proportion of the
-     *                           velocity which is preserved in the bounce when the horizontal edge is reached. A null value
-     *                           means no bounce. This behavior is no longer supported and this coefficient has no effect.
-     * @param bounceCoefficientY Same as bounceCoefficientX but for the vertical direction. This
-     *                           behavior is no longer supported and this coefficient has no effect.
-     * @deprecated Use {@link #OverScroller(Context, Interpolator)} instead.
-     */
-    @Deprecated
-    public OverScroller(Context context, Interpolator interpolator,
-                        float bounceCoefficientX, float bounceCoefficientY) {
-        this(context, interpolator, true);
-    }
-
-    /**
-     * Creates an OverScroller.
-     *
-     * @param context            The context of this application.
-     * @param interpolator       The scroll interpolator. If null, a default (viscous) interpolator will
-     *                           be used.
-     * @param bounceCoefficientX A value between 0 and 1 that will determine the proportion of the
-     *                           velocity which is preserved in the bounce when the horizontal edge is reached. A null value
-     *                           means no bounce. This behavior is no longer supported and this coefficient has no effect.
-     * @param bounceCoefficientY Same as bounceCoefficientX but for the vertical direction. This
-     *                           behavior is no longer supported and this coefficient has no effect.
-     * @param flywheel           If true, successive fling motions will keep on increasing scroll speed.
-     * @deprecated Use {@link #OverScroller(Context, Interpolator)} instead.
-     */
-    @Deprecated
-    public OverScroller(Context context, Interpolator interpolator,
-                        float bounceCoefficientX, float bounceCoefficientY, boolean flywheel) {
-        this(context, interpolator, flywheel);
-    }
-
-    void setInterpolator(Interpolator interpolator) {
+    void setInterpolator(ScrollInterpolator interpolator) {
         if (interpolator == null) {
             mInterpolator = new ViscousFluidInterpolator();
         } else {
@@ -131,7 +92,7 @@ class OverScroller {
 
     /**
      * The amount of friction applied to flings. The default value
-     * is {@link ViewConfiguration#getScrollFriction}.
+     * is the same as {@code ViewConfiguration.getScrollFriction()}.
      *
      * @param friction A scalar dimension-less value representing the coefficient of
      *                 friction.
@@ -180,6 +141,16 @@ class OverScroller {
         return mScrollerY.mCurrentPosition;
     }
 
+    /**
+     * Returns the sub-pixel remainder of the current X offset, {@link #getCurrX()} plus this
+     * value is the exact position sampled at the current animation time.
+     *
+     * @return The remainder, between -0.5 and 0.5.
+     */
+    public final float getCurrXFraction() {
+        return mScrollerX.mCurrentPositionFraction;
+    }
+
     /**
      * Returns the absolute value of the current velocity.
      *
@@ -189,6 +160,16 @@ class OverScroller {
         return (float) Math.hypot(mScrollerX.mCurrVelocity, mScrollerY.mCurrVelocity);
     }
 
+    /**
+     * Returns the signed current velocity along X of a running fling. Scrolls started by
+     * {@link #startScroll} do not track their velocity, 0 is returned for them.
+     *
+     * @return The current velocity along X in pixels per second, 0 if the scroller is finished.
+     */
+    public float getCurrVelocityX() {
+        return FLING_MODE == mMode && !mScrollerX.mFinished ? mScrollerX.mCurrVelocity : 0;
+    }
+
     /**
      * Returns the start X offset in the scroll.
      *
@@ -302,14 +283,15 @@ class OverScroller {
 
         switch (mMode) {
             case SCROLL_MODE:
-                long time = AnimationUtils.currentAnimationTimeMillis();
+                long time = mClock.currentAnimationTimeNanos();
                 // Any scroller can be used for time, since they were started
-                // together in scroll mode. We use X here.
-                final long elapsedTime = time - mScrollerX.mStartTime;
+                // together in scroll mode. We use X here. The first frame may be timestamped
+                // before the scroll was started.
+                final float elapsedTime = Math.max(0, time - mScrollerX.mStartTime) / NANOS_PER_MILLI;
 
                 final int duration = mScrollerX.mDuration;
                 if (elapsedTime < duration) {
-                    final float q = mInterpolator.getInterpolation(elapsedTime / (float) duration);
+                    final float q = mInterpolator.getInterpolation(elapsedTime / duration);
                     mScrollerX.updateScroll(q);
                     mScrollerY.updateScroll(q);
                 } else {
@@ -448,6 +430,37 @@ class OverScroller {
         mScrollerY.fling(startY, velocityY, minY, maxY, overY);
     }
 
+    /**
+     * Start a fling that comes to rest exactly at finalX. The motion is the deceleration curve of
+     * a fling covering that very distance, so the initial velocity is derived from the distance
+     * and no correction is needed once the fling ends.
+     *
+     * @param startX Starting point of the fling (X)
+     * @param finalX Position the fling stops at (X)
+     */
+    public void flingTo(int startX, int finalX) {
+        mMode = FLING_MODE;
+        mScrollerX.flingTo(startX, finalX);
+        mScrollerY.flingTo(mScrollerY.mCurrentPosition, mScrollerY.mCurrentPosition);
+    }
+
+    /**
+     * Start a motion that leaves startX at velocityX and comes to rest exactly at finalX, used to
+     * retarget a running animation without a jump in speed. The motion is a cubic curve, its
+     * duration is the one of a fling covering the distance, shortened when the velocity heads for
+     * finalX fast enough to overshoot it.
+     *
+     * @param startX    Starting point of the motion (X)
+     * @param finalX    Position the motion stops at (X)
+     * @param velocityX Velocity at startX in pixels per second, 0 starts an ordinary
+     *                  {@link #flingTo(int, int)}
+     */
+    public void flingTo(int startX, int finalX, float velocityX) {
+        mMode = FLING_MODE;
+        mScrollerX.flingTo(startX, finalX, velocityX);
+        mScrollerY.flingTo(mScrollerY.mCurrentPosition, mScrollerY.mCurrentPosition);
+    }
+
     /**
      * Notify the scroller that we've reached a horizontal boundary.
      * Normally the information to handle this will already be known
@@ -521,9 +534,9 @@ class OverScroller {
      * @hide
      */
     public int timePassed() {
-        final long time = AnimationUtils.currentAnimationTimeMillis();
+        final long time = mClock.currentAnimationTimeNanos();
         final long startTime = Math.min(mScrollerX.mStartTime, mScrollerY.mStartTime);
-        return (int) (time - startTime);
+        return (int) ((time - startTime) / 1000000L);
     }
 
     /**
@@ -551,6 +564,9 @@ class OverScroller {
         // Current position
         private int mCurrentPosition;
 
+        // Sub-pixel remainder of the current position
+        private float mCurrentPositionFraction;
+
         // Final position
         private int mFinal;
 
@@ -563,7 +579,10 @@ class OverScroller {
         // Constant current deceleration
         private float mDeceleration;
 
-        // Animation starting time, in system milliseconds
+        // Distance the start velocity covers in mDuration, start tangent of the RETARGET curve
+        private float mTangent;
+
+        // Animation starting time, in nanoseconds of the animation clock
         private long mStartTime;
 
         // Animation duration, in milliseconds
@@ -582,80 +601,68 @@ class OverScroller {
         private int mOver;
 
         // Fling friction
-        private float mFlingFriction = ViewConfiguration.getScrollFriction();
+        private float mFlingFriction = SCROLL_FRICTION;
 
         // Current state of the animation.
         private int mState = SPLINE;
 
+        // ViewConfiguration.getScrollFriction()
+        private static final float SCROLL_FRICTION = 0.015f;
+
+        // SensorManager.GRAVITY_EARTH
+        private static final float GRAVITY_EARTH = 9.80665f;
+
+        // Time source of the animation
+        private final AnimationClock mClock;
+
         // Constant gravity value, used in the deceleration phase.
         private static final float GRAVITY = 2000.0f;
 
         // A context-specific coefficient adjusted to physical values.
         private float mPhysicalCoeff;
 
-        private static float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+        // mFlingFriction * mPhysicalCoeff, the distance unit of the spline
+        private float mFrictionCoeff;
+
+        private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
         private static final float INFLEXION = 0.35f; // Tension lines cross at (INFLEXION, 1)
-        private static final float START_TENSION = 0.5f;
-        private static final float END_TENSION = 1.0f;
-        private static final float P1 = START_TENSION * INFLEXION;
-        private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
 
-        private static final int NB_SAMPLES = 100;
-        private static final float[] SPLINE_POSITION = new float[NB_SAMPLES + 1];
-        private static final float[] SPLINE_TIME = new float[NB_SAMPLES + 1];
+        // Exponents of the power laws relating velocity, distance and duration of a fling
+        private static final float DISTANCE_EXPONENT = DECELERATION_RATE / (DECELERATION_RATE - 1.0f);
+        private static final float DURATION_EXPONENT = 1.0f / (DECELERATION_RATE - 1.0f);
+        private static final float VELOCITY_EXPONENT = 1.0f / DISTANCE_EXPONENT;
+
+        // Generated at build time with a finer resolution than the 100 samples solved on class load
+        private static final int NB_SAMPLES = SplineTables.NB_SAMPLES;
+        private static final float[] SPLINE_POSITION = SplineTables.SPLINE_POSITION;
+        private static final float[] SPLINE_TIME = SplineTables.SPLINE_TIME;
 
         private static final int SPLINE = 0;
         private static final int CUBIC = 1;
         private static final int BALLISTIC = 2;
-
-        static {
-            float x_min = 0.0f;
-            float y_min = 0.0f;
-            for (int i = 0; i < NB_SAMPLES; i++) {
-                final float alpha = (float) i / NB_SAMPLES;
-
-                float x_max = 1.0f;
-                float x, tx, coef;
-                while (true) {
-                    x = x_min + (x_max - x_min) / 2.0f;
-                    coef = 3.0f * x * (1.0f - x);
-                    tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
-                    if (Math.abs(tx - alpha) < 1E-5) break;
-                    if (tx > alpha) x_max = x;
-                    else x_min = x;
-                }
-                SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
-
-                float y_max = 1.0f;
-                float y, dy;
-                while (true) {
-                    y = y_min + (y_max - y_min) / 2.0f;
-                    coef = 3.0f * y * (1.0f - y);
-                    dy = coef * ((1.0f - y) * START_TENSION + y) + y * y * y;
-                    if (Math.abs(dy - alpha) < 1E-5) break;
-                    if (dy > alpha) y_max = y;
-                    else y_min = y;
-                }
-                SPLINE_TIME[i] = coef * ((1.0f - y) * P1 + y * P2) + y * y * y;
-            }
-            SPLINE_POSITION[NB_SAMPLES] = SPLINE_TIME[NB_SAMPLES] = 1.0f;
-        }
+        private static final int RETARGET = 3;
 
         void setFriction(float friction) {
             mFlingFriction = friction;
+            mFrictionCoeff = mFlingFriction * mPhysicalCoeff;
         }
 
-        SplineOverScroller(Context context) {
+        SplineOverScroller(float density, AnimationClock clock) {
             mFinished = true;
-            final float ppi = context.getResources().getDisplayMetrics().density * 160.0f;
-            mPhysicalCoeff = SensorManager.GRAVITY_EARTH // g (m/s^2)
+            mClock = clock;
+            final float ppi = density * 160.0f;
+            mPhysicalCoeff = GRAVITY_EARTH // g (m/s^2)
                     * 39.37f // inch/meter
                     * ppi
                     * 0.25f; // look and feel tuning
+            mFrictionCoeff = mFlingFriction * mPhysicalCoeff;
         }
 
         void updateScroll(float q) {
-            mCurrentPosition = mStart + Math.round(q * (mFinal - mStart));
+            final float distance = q * (mFinal - mStart);
+            final int roundedDistance = Math.round(distance);
+            mCurrentPosition = mStart + roundedDistance;
+            mCurrentPositionFraction = distance - roundedDistance;
         }
 
         /*
@@ -688,9 +695,10 @@ class OverScroller {
             mFinished = false;
 
             mCurrentPosition = mStart = start;
+            mCurrentPositionFraction = 0;
             mFinal = start + distance;
 
-            mStartTime = AnimationUtils.currentAnimationTimeMillis();
+            mStartTime = mClock.currentAnimationTimeNanos();
             mDuration = duration;
 
             // Unused
@@ -700,6 +708,7 @@ class OverScroller {
 
         void finish() {
             mCurrentPosition = mFinal;
+            mCurrentPositionFraction = 0;
             // Not reset since WebView relies on this value for fast fling.
             // TODO: restore when WebView uses the fast fling implemented in this class.
             // mCurrVelocity = 0.0f;
@@ -712,8 +721,8 @@ class OverScroller {
         }
 
         void extendDuration(int extend) {
-            final long time = AnimationUtils.currentAnimationTimeMillis();
-            final int elapsedTime = (int) (time - mStartTime);
+            final long time = mClock.currentAnimationTimeNanos();
+            final int elapsedTime = (int) ((time - mStartTime) / 1000000L);
             mDuration = elapsedTime + extend;
             mFinished = false;
         }
@@ -722,9 +731,10 @@ class OverScroller {
             mFinished = true;
 
             mCurrentPosition = mStart = mFinal = start;
+            mCurrentPositionFraction = 0;
             mVelocity = 0;
 
-            mStartTime = AnimationUtils.currentAnimationTimeMillis();
+            mStartTime = mClock.currentAnimationTimeNanos();
             mDuration = 0;
 
             if (start < min) {
@@ -741,6 +751,7 @@ class OverScroller {
             mFinished = false;
             mState = CUBIC;
             mCurrentPosition = mStart = start;
+            mCurrentPositionFraction = 0;
             mFinal = end;
             final int delta = start - end;
             mDeceleration = getDeceleration(delta);
@@ -755,8 +766,9 @@ class OverScroller {
             mFinished = false;
             mCurrVelocity = mVelocity = velocity;
             mDuration = mSplineDuration = 0;
-            mStartTime = AnimationUtils.currentAnimationTimeMillis();
+            mStartTime = mClock.currentAnimationTimeNanos();
             mCurrentPosition = mStart = start;
+            mCurrentPositionFraction = 0;
 
             if (start > max || start < min) {
                 startAfterEdge(start, min, max, velocity);
@@ -786,25 +798,67 @@ class OverScroller {
             }
         }
 
-        private double getSplineDeceleration(int velocity) {
-            return Math.log(INFLEXION * Math.abs(velocity) / (mFlingFriction * mPhysicalCoeff));
+        void flingTo(int start, int end) {
+            mOver = 0;
+            mState = SPLINE;
+            mStartTime = mClock.currentAnimationTimeNanos();
+            mCurrentPosition = mStart = start;
+            mCurrentPositionFraction = 0;
+            mFinal = end;
+            // The spline is scaled by the exact distance, only the duration depends on the
+            // velocity, which is truncated and therefore must not define where the fling ends
+            mSplineDistance = end - start;
+            mCurrVelocity = mVelocity = getSplineFlingVelocity(mSplineDistance);
+            mDuration = mSplineDuration = 0 != mVelocity ? getSplineFlingDuration(mVelocity) : 0;
+            mFinished = 0 == mDuration;
+        }
+
+        /*
+         * Cubic Hermite curve from start at velocity to end at rest. Heading for end the curve
+         * stays monotonic as long as the start tangent is at most three times the distance, the
+         * duration is shortened to keep it so. Heading away it turns around, given at least the
+         * time a fling at that velocity takes to stop.
+         */
+        void flingTo(int start, int end, float velocity) {
+            if (0 == velocity) {
+                flingTo(start, end);
+                return;
+            }
+            final int distance = end - start;
+            float duration = 0 != distance ? getSplineFlingDuration(getSplineFlingVelocity(distance)) : 0;
+            if (velocity * distance > 0) {
+                duration = Math.min(duration, 3000.0f * distance / velocity);
+            } else {
+                duration = Math.max(duration, getSplineFlingDuration((int) velocity));
+            }
+            mOver = 0;
+            mState = RETARGET;
+            mStartTime = mClock.currentAnimationTimeNanos();
+            mCurrentPosition = mStart = start;
+            mCurrentPositionFraction = 0;
+            mFinal = end;
+            mCurrVelocity = mVelocity = (int) velocity;
+            mDuration = mSplineDuration = Math.max(1, (int) duration);
+            mTangent = velocity * mDuration / 1000.0f;
+            mFinished = false;
         }
 
+        /*
+         * The spline relates velocity, distance and duration by power laws of
+         * INFLEXION * velocity / mFrictionCoeff, evaluated in float by SplineMath.
+         */
         private double getSplineFlingDistance(int velocity) {
-            final double l = getSplineDeceleration(velocity);
-            final double decelMinusOne = DECELERATION_RATE - 1.0;
-            return mFlingFriction * mPhysicalCoeff * Math.exp(DECELERATION_RATE / decelMinusOne * l);
+            return mFrictionCoeff * SplineMath.pow(INFLEXION * Math.abs(velocity) / mFrictionCoeff, DISTANCE_EXPONENT);
         }
 
         private int getSplineFlingVelocity(double distance) {
-            return (int) (Math.signum(distance) * Math.exp(Math.log(Math.abs(distance) / (mFlingFriction * mPhysicalCoeff)) / (DECELERATION_RATE / (DECELERATION_RATE - 1.0))) / INFLEXION * (mFlingFriction * mPhysicalCoeff));
+            final float velocity = SplineMath.pow((float) Math.abs(distance) / mFrictionCoeff, VELOCITY_EXPONENT) / INFLEXION * mFrictionCoeff;
+            return (int) (distance < 0 ? -velocity : velocity);
         }
 
         /* Returns the duration, expressed in milliseconds */
         private int getSplineFlingDuration(int velocity) {
-            final double l = getSplineDeceleration(velocity);
-            final double decelMinusOne = DECELERATION_RATE - 1.0;
-            return (int) (1000.0 * Math.exp(l / decelMinusOne));
+            return (int) (1000.0f * SplineMath.pow(INFLEXION * Math.abs(velocity) / mFrictionCoeff, DURATION_EXPONENT));
         }
 
         private void fitOnBounceCurve(int start, int end, int velocity) {
@@ -816,8 +870,9 @@ class OverScroller {
             final float distanceToEdge = Math.abs(end - start);
             final float totalDuration = (float) Math.sqrt(
                     2.0 * (distanceToApex + distanceToEdge) / Math.abs(mDeceleration));
-            mStartTime -= (int) (1000.0f * (totalDuration - durationToApex));
+            mStartTime -= (long) (1000000000.0 * (totalDuration - durationToApex));
             mCurrentPosition = mStart = end;
+            mCurrentPositionFraction = 0;
             mVelocity = (int) (-mDeceleration * totalDuration);
         }
 
@@ -829,7 +884,6 @@ class OverScroller {
 
         private void startAfterEdge(int start, int min, int max, int velocity) {
             if (start > min && start < max) {
-                Log.e("OverScroller", "startAfterEdge called from a valid position");
                 mFinished = true;
                 return;
             }
@@ -854,7 +908,7 @@ class OverScroller {
             // mState is used to detect successive notifications 
             if (mState == SPLINE) {
                 mOver = over;
-                mStartTime = AnimationUtils.currentAnimationTimeMillis();
+                mStartTime = mClock.currentAnimationTimeNanos();
                 // We were in fling/scroll mode before: current velocity is such that distance to
                 // edge is increasing. This ensures that startAfterEdge will not start a new fling.
                 startAfterEdge(start, end, end, (int) mCurrVelocity);
@@ -887,10 +941,11 @@ class OverScroller {
                     if (mDuration < mSplineDuration) {
                         // If the animation was clamped, we reached the edge
                         mCurrentPosition = mStart = mFinal;
+                        mCurrentPositionFraction = 0;
                         // TODO Better compute speed when edge was reached
                         mVelocity = (int) mCurrVelocity;
                         mDeceleration = getDeceleration(mVelocity);
-                        mStartTime += mDuration;
+                        mStartTime += mDuration * 1000000L;
                         onEdgeReached();
                     } else {
                         // Normal stop, no need to continue
@@ -898,10 +953,11 @@ class OverScroller {
                     }
                     break;
                 case BALLISTIC:
-                    mStartTime += mDuration;
+                    mStartTime += mDuration * 1000000L;
                     startSpringback(mFinal, mStart, 0);
                     break;
                 case CUBIC:
+                case RETARGET:
                     return false;
             }
 
@@ -915,10 +971,12 @@ class OverScroller {
          * reached.
          */
         boolean update() {
-            final long time = AnimationUtils.currentAnimationTimeMillis();
-            final long currentTime = time - mStartTime;
+            final long time = mClock.currentAnimationTimeNanos();
+            // Milliseconds with a fractional part, frames of high refresh rate displays are not
+            // a whole number of milliseconds apart
+            final float currentTime = (time - mStartTime) / NANOS_PER_MILLI;
 
-            if (currentTime == 0) {
+            if (currentTime <= 0) {
                 // Skip work but report that we're still going if we have a nonzero duration.
                 return mDuration > 0;
             }
@@ -929,7 +987,7 @@ class OverScroller {
             double distance = 0.0;
             switch (mState) {
                 case SPLINE: {
-                    final float t = (float) currentTime / mSplineDuration;
+                    final float t = currentTime / mSplineDuration;
                     final int index = (int) (NB_SAMPLES * t);
                     float distanceCoef = 1.f;
                     float velocityCoef = 0.f;
@@ -955,16 +1013,27 @@ class OverScroller {
                 }
 
                 case CUBIC: {
-                    final float t = (float) (currentTime) / mDuration;
+                    final float t = currentTime / mDuration;
                     final float t2 = t * t;
                     final float sign = Math.signum(mVelocity);
                     distance = sign * mOver * (3.0f * t2 - 2.0f * t * t2);
                     mCurrVelocity = sign * mOver * 6.0f * (-t + t2);
                     break;
                 }
+
+                case RETARGET: {
+                    final float t = currentTime / mDuration;
+                    final float u = 1.0f - t;
+                    final int delta = mFinal - mStart;
+                    distance = mTangent * t * u * u + delta * t * t * (3.0f - 2.0f * t);
+                    mCurrVelocity = (mTangent * u * (1.0f - 3.0f * t) + delta * 6.0f * t * u) / mDuration * 1000.0f;
+                    break;
+                }
             }
 
-            mCurrentPosition = mStart + (int) Math.round(distance);
+            final long roundedDistance = Math.round(distance);
+            mCurrentPosition = mStart + (int) roundedDistance;
+            mCurrentPositionFraction = (float) (distance - roundedDistance);
 
             return true;
         }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * 百分比，数值本身即为百分数，例如值{@code 50}显示为{@code 50%}，符号位置遵循地区规则
+ */
+public class PercentRulerValueFormatter extends NumberRulerValueFormatter {
+    public PercentRulerValueFormatter() {
+        this(0, Locale.getDefault());
+    }
+
+    public PercentRulerValueFormatter(int fractionDigits, Locale locale) {
+        this(1, 0, fractionDigits, locale);
+    }
+
+    /**
+     * @param multiple       每个刻度代表的百分数，单位为最小的小数位
+     * @param initialValue   值为0的刻度代表的百分数，单位为最小的小数位
+     * @param fractionDigits 小数位数
+     */
+    public PercentRulerValueFormatter(int multiple, int initialValue, int fractionDigits, Locale locale) {
+        super(multiple, initialValue, fractionDigits, NumberFormat.getPercentInstance(locale), null);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.util.Arrays;
+
+/**
+ * 分段刻度模型，每一段内的间距相同，例如常用数值附近的刻度更密，区间顶端的刻度更稀疏
+ */
+public class PiecewiseScaleModel extends IndexedScaleModel {
+    private long[] mStartValues = {Long.MIN_VALUE};
+    private float[] mWeights = {1};
+
+    public PiecewiseScaleModel() {
+    }
+
+    public PiecewiseScaleModel(int stepWidth, long minValue, long maxValue) {
+        super(stepWidth, minValue, maxValue);
+    }
+
+    /**
+     * 设置分段
+     *
+     * @param startValues 每一段的起始值，严格升序，第一段之前的刻度使用第一段的间距
+     * @param weights     每一段的相对间距，实际的像素间距为该值乘以stepWidth
+     */
+    public void setSegments(long[] startValues, float[] weights) {
+        if (0 == startValues.length || startValues.length != weights.length) {
+            throw new IllegalArgumentException("起始值与间距的数量必须相同且不为0");
+        }
+        for (int index = 0; index < startValues.length; index++) {
+            if (index > 0 && startValues[index] <= startValues[index - 1]) {
+                throw new IllegalArgumentException("起始值必须严格升序: " + startValues[index]);
+            }
+            if (!(weights[index] >= 0)) {
+                throw new IllegalArgumentException("刻度间距不能小于0: " + weights[index]);
+            }
+        }
+        mStartValues = startValues.clone();
+        mWeights = weights.clone();
+        invalidateIndex();
+    }
+
+    @Override
+    protected float getStepWeight(long value) {
+        int index = Arrays.binarySearch(mStartValues, value);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return mWeights[Math.max(0, index)];
+    }
+}
@@ -17,7 +17,7 @@ package ke.tang.ruler;
 
 /**
  * 用于格式化显示标尺的值
- * 标尺值只允许是从0到{@link RulerView#MAX_VALUE}之间的数值，如果需要展示成其它文本，就需要实现本接口，在{@link #formatValue(int)}方法中实现值与文本对应关系
+ * 标尺值只允许是从0到{@link ScaleModel#MAX_VALUE}之间的数值，如果需要展示成其它文本，就需要实现本接口，在{@link #formatValue(int)}方法中实现值与文本对应关系
  * 例如：
  * <table summary="">
  *     <tr>
@@ -33,12 +33,13 @@ package ke.tang.ruler;
  *         <td>十</td>
  *     </tr>
  * </table>
+ * 标尺滚动时需要频繁格式化，建议实现{@link BufferedRulerValueFormatter}以避免每次创建{@link String}
  */
 public interface RulerValueFormatter {
     /**
      * 当标尺需要显示一个值的时候调用该方法获取格式化后的值
      *
-     * @param value 当前的值，取值范围从0到{@link RulerView#MAX_VALUE}
+     * @param value 当前的值，取值范围从0到{@link ScaleModel#MAX_VALUE}
      * @return 当前值对应的文本
      */
     String formatValue(int value);
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 标尺刻度模型，负责值与内容偏移之间的换算，不依赖Android
+ * <p>
+ * 内容偏移相对于可移动的原点计算，值为originValue的刻度位于内容偏移0处。值的范围可以是任意long，只要原点跟随当前值移动，
+ * 内容偏移就始终是较小的int，绘制与吸附的运算保持精确。步长可以是小数，只有换算出的内容偏移取整，缩放不会在提交时跳变。
+ * 刻度之间的间距由子类决定：
+ * <ul>
+ * <li>{@link LinearScaleModel} 均匀间距</li>
+ * <li>{@link IndexedScaleModel} 任意间距，通过预先计算的位置索引换算</li>
+ * </ul>
+ */
+public abstract class ScaleModel {
+    public final static int MAX_VALUE = 10000;
+
+    /**
+     * 内容偏移的上限，超出时饱和到该值，给偏移之间的加减留出余量
+     */
+    public final static int MAX_CONTENT_OFFSET = Integer.MAX_VALUE / 2;
+
+    private float mStepWidth = 1;
+    private long mMinValue;
+    private long mMaxValue = MAX_VALUE;
+    private long mOriginValue;
+
+    public ScaleModel() {
+    }
+
+    public ScaleModel(int stepWidth, long minValue, long maxValue) {
+        setStepWidth(stepWidth);
+        setRange(minValue, maxValue);
+    }
+
+    /**
+     * @return 四舍五入后的步长
+     */
+    public int getStepWidth() {
+        return Math.round(mStepWidth);
+    }
+
+    /**
+     * @return 未取整的步长
+     */
+    public float getExactStepWidth() {
+        return mStepWidth;
+    }
+
+    /**
+     * @return 步长是否为整数，整数步长下所有刻度的内容偏移都是步长的整数倍
+     */
+    public boolean isIntegralStepWidth() {
+        return mStepWidth == (int) mStepWidth;
+    }
+
+    /**
+     * @param stepWidth 基准刻度间距，均匀模型中即相邻刻度之间的像素距离，小于1时按1处理
+     */
+    public void setStepWidth(int stepWidth) {
+        setStepWidth((float) stepWidth);
+    }
+
+    /**
+     * @param stepWidth 基准刻度间距，可以是小数，小于1或不是有效数字时按1处理
+     */
+    public void setStepWidth(float stepWidth) {
+        mStepWidth = stepWidth >= 1 ? Math.min(stepWidth, MAX_CONTENT_OFFSET) : 1;
+        onScaleChanged();
+    }
+
+    public long getMinValue() {
+        return mMinValue;
+    }
+
+    public long getMaxValue() {
+        return mMaxValue;
+    }
+
+    public void setMinValue(long minValue) {
+        if (minValue > mMaxValue) {
+            throw new IllegalArgumentException("最小值: " + minValue + " 不能大于最大值: " + mMaxValue);
+        }
+        checkRange(minValue, mMaxValue);
+        mMinValue = minValue;
+        onScaleChanged();
+    }
+
+    public void setMaxValue(long maxValue) {
+        if (maxValue < mMinValue) {
+            throw new IllegalArgumentException("最大值: " + maxValue + " 不能小于最小值: " + mMinValue);
+        }
+        checkRange(mMinValue, maxValue);
+        mMaxValue = maxValue;
+        onScaleChanged();
+    }
+
+    public void setRange(long minValue, long maxValue) {
+        if (maxValue < minValue) {
+            throw new IllegalArgumentException("最大值不能小于最小值");
+        }
+        checkRange(minValue, maxValue);
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        onScaleChanged();
+    }
+
+    /**
+     * @return 内容偏移为0处的值
+     */
+    public long getOriginValue() {
+        return mOriginValue;
+    }
+
+    /**
+     * 移动原点，之前得到的内容偏移全部失效
+     *
+     * @param originValue 内容偏移为0处的值，不要求在[minValue, maxValue]之间
+     */
+    public void setOriginValue(long originValue) {
+        mOriginValue = originValue;
+    }
+
+    /**
+     * @return 限制在[minValue, maxValue]之间的值
+     */
+    public long clampValue(long value) {
+        return Math.max(mMinValue, Math.min(value, mMaxValue));
+    }
+
+    /**
+     * 取值范围生效之前调用，子类不支持该范围时抛出{@link IllegalArgumentException}，此时范围保持不变
+     *
+     * @param minValue 新的最小值
+     * @param maxValue 新的最大值，不小于最小值
+     */
+    protected void checkRange(long minValue, long maxValue) {
+    }
+
+    /**
+     * 步长或取值范围变化后调用
+     */
+    protected void onScaleChanged() {
+    }
+
+    /**
+     * @return 距离内容偏移最近的刻度值，距离相同时取较大的值，限制在[minValue, maxValue]之间
+     */
+    public abstract long getValueForContentOffset(int contentOffset);
+
+    /**
+     * @return 值对应的内容偏移，超出{@link #MAX_CONTENT_OFFSET}时饱和
+     */
+    public abstract int getContentOffsetForValue(long value);
+
+    /**
+     * 批量换算刻度的内容偏移，绘制一帧时所有刻度只需调用一次，子类可以把与原点有关的运算提到循环之外
+     *
+     * @param values  升序排列的刻度值
+     * @param offsets 换算结果，与values一一对应，超出{@link #MAX_CONTENT_OFFSET}时饱和
+     * @param count   换算的数量
+     */
+    public void getContentOffsetsForValues(long[] values, int[] offsets, int count) {
+        for (int index = 0; index < count; index++) {
+            offsets[index] = getContentOffsetForValue(values[index]);
+        }
+    }
+
+    /**
+     * @return 内容偏移是否正好落在某个刻度上
+     */
+    public boolean isOnTick(int contentOffset) {
+        return getContentOffsetForValue(getValueForContentOffset(contentOffset)) == contentOffset;
+    }
+
+    /**
+     * 第一个可见的刻度值，所有刻度绘制内容都不超出中心两侧extent范围
+     *
+     * @param originX 原点在屏幕上的横坐标，即{@code -contentOffset}加上指示器的位置
+     * @param extent  刻度绘制内容在中心两侧的最大宽度
+     */
+    public abstract long getFirstVisibleValue(float originX, float extent);
+
+    /**
+     * 最后一个可见的刻度值，所有刻度绘制内容都不超出中心两侧extent范围
+     *
+     * @param originX 原点在屏幕上的横坐标，即{@code -contentOffset}加上指示器的位置
+     * @param width   可见区域宽度
+     * @param extent  刻度绘制内容在中心两侧的最大宽度
+     */
+    public abstract long getLastVisibleValue(float originX, float width, float extent);
+
+    /**
+     * @return 限制在[-MAX_CONTENT_OFFSET, MAX_CONTENT_OFFSET]之间的内容偏移
+     */
+    protected static int saturateContentOffset(long contentOffset) {
+        return (int) Math.max(-MAX_CONTENT_OFFSET, Math.min(contentOffset, MAX_CONTENT_OFFSET));
+    }
+}
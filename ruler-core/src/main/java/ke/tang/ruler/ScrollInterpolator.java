@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * {@link OverScroller}滚动动画的插值器，与{@code android.view.animation.Interpolator}签名一致
+ */
+public interface ScrollInterpolator {
+    /**
+     * @param input 动画进度，0到1之间
+     * @return 插值后的进度
+     */
+    float getInterpolation(float input);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * Float approximations of the power functions the fling physics is made of.
+ * <p>
+ * log2 and exp2 are looked up in the build-time generated {@link SplineTables} and linearly
+ * interpolated, the relative error of {@link #pow(float, float)} stays in the order of 1E-5 for
+ * the exponents used by {@link OverScroller}, while avoiding the double precision
+ * {@code Math.log} and {@code Math.exp} calls.
+ */
+final class SplineMath {
+    private final static int BITS = SplineTables.FAST_MATH_BITS;
+    private final static int SAMPLES = 1 << BITS;
+    private final static int MANTISSA_SHIFT = 23 - BITS;
+    private final static float MANTISSA_SCALE = 1f / (1 << MANTISSA_SHIFT);
+
+    private SplineMath() {
+    }
+
+    /**
+     * @param x positive normal float
+     */
+    static float log2(float x) {
+        final int bits = Float.floatToRawIntBits(x);
+        final int exponent = ((bits >>> 23) & 0xff) - 127;
+        final int mantissa = bits & 0x7fffff;
+        final int index = mantissa >>> MANTISSA_SHIFT;
+        final float fraction = (mantissa & ((1 << MANTISSA_SHIFT) - 1)) * MANTISSA_SCALE;
+        final float low = SplineTables.LOG2[index];
+        return exponent + low + (SplineTables.LOG2[index + 1] - low) * fraction;
+    }
+
+    static float exp2(float y) {
+        if (y < -126) {
+            return 0;
+        }
+        if (y >= 128) {
+            return Float.POSITIVE_INFINITY;
+        }
+        int exponent = (int) y;
+        if (y < exponent) {
+            exponent--;
+        }
+        final float scaled = (y - exponent) * SAMPLES;
+        final int index = Math.min((int) scaled, SAMPLES - 1);
+        final float fraction = scaled - index;
+        final float low = SplineTables.EXP2[index];
+        //2^exponent assembled from its bits, the exponent is in the normal range
+        return (low + (SplineTables.EXP2[index + 1] - low) * fraction) * Float.intBitsToFloat((exponent + 127) << 23);
+    }
+
+    /**
+     * @return x raised to y, 0 if x is not positive
+     */
+    static float pow(float x, float y) {
+        if (!(x >= Float.MIN_NORMAL)) {
+            return 0;
+        }
+        return exp2(y * log2(x));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * 带单位的数值，例如unit为{@code " kg"}时值{@code 1250}显示为{@code 1,250 kg}
+ */
+public class UnitRulerValueFormatter extends NumberRulerValueFormatter {
+    public UnitRulerValueFormatter(String unit) {
+        this(unit, 0, Locale.getDefault());
+    }
+
+    public UnitRulerValueFormatter(String unit, int fractionDigits, Locale locale) {
+        this(1, 0, unit, fractionDigits, locale);
+    }
+
+    /**
+     * @param multiple       每个刻度代表的数值，单位为最小的小数位
+     * @param initialValue   值为0的刻度代表的数值，单位为最小的小数位
+     * @param unit           追加在数值之后的单位
+     * @param fractionDigits 小数位数
+     */
+    public UnitRulerValueFormatter(int multiple, int initialValue, String unit, int fractionDigits, Locale locale) {
+        super(multiple, initialValue, fractionDigits, NumberFormat.getNumberInstance(locale), unit);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 闭区间[lower, upper]，lower大于upper时表示空区间
+ */
+public final class ValueRange {
+    private final long mLower;
+    private final long mUpper;
+
+    public ValueRange(long lower, long upper) {
+        mLower = lower;
+        mUpper = upper;
+    }
+
+    public long getLower() {
+        return mLower;
+    }
+
+    public long getUpper() {
+        return mUpper;
+    }
+
+    public boolean isEmpty() {
+        return mLower > mUpper;
+    }
+
+    public boolean contains(long value) {
+        return value >= mLower && value <= mUpper;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ValueRange)) {
+            return false;
+        }
+        ValueRange range = (ValueRange) o;
+        return mLower == range.mLower && mUpper == range.mUpper;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (mLower ^ (mLower >>> 32)) + (int) (mUpper ^ (mUpper >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "[" + mLower + ", " + mUpper + "]";
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 一维速度估计，替代{@code VelocityTracker}，不依赖Android，也不分配内存
+ * <p>
+ * 采样点保存在固定大小的环形缓冲中，只使用最近{@link #HORIZON_MILLIS}毫秒内的最多{@link #HISTORY_SIZE}个点，
+ * 两个采样之间停顿超过{@link #ASSUME_STOPPED_MILLIS}毫秒时认为手指已经停下，之前的采样全部丢弃，这些参数与平台的
+ * {@code VelocityTracker}一致。支持两种策略：
+ * <ul>
+ * <li>{@link #STRATEGY_LSQ2} 二次多项式最小二乘拟合，取最新采样处的导数，即平台默认的lsq2</li>
+ * <li>{@link #STRATEGY_IMPULSE} 按动能累积每一段位移的冲量，对采样噪声和最后一段的急停更稳定，即平台的impulse</li>
+ * </ul>
+ */
+public final class VelocityEstimator {
+    public final static int STRATEGY_LSQ2 = 0;
+    public final static int STRATEGY_IMPULSE = 1;
+
+    public final static int HISTORY_SIZE = 20;
+    public final static int HORIZON_MILLIS = 100;
+    public final static int ASSUME_STOPPED_MILLIS = 40;
+
+    private final long[] mTimes = new long[HISTORY_SIZE];
+    private final float[] mPositions = new float[HISTORY_SIZE];
+    private int mStrategy;
+    //Index of the newest sample
+    private int mHead = -1;
+    private int mCount;
+
+    public VelocityEstimator() {
+        this(STRATEGY_LSQ2);
+    }
+
+    public VelocityEstimator(int strategy) {
+        setStrategy(strategy);
+    }
+
+    public int getStrategy() {
+        return mStrategy;
+    }
+
+    /**
+     * @param strategy {@link #STRATEGY_LSQ2}或{@link #STRATEGY_IMPULSE}
+     */
+    public void setStrategy(int strategy) {
+        if (STRATEGY_LSQ2 != strategy && STRATEGY_IMPULSE != strategy) {
+            throw new IllegalArgumentException("不支持的速度估计策略: " + strategy);
+        }
+        mStrategy = strategy;
+    }
+
+    /**
+     * 清空所有采样，新的触摸序列开始时调用
+     */
+    public void clear() {
+        mHead = -1;
+        mCount = 0;
+    }
+
+    /**
+     * 添加一个采样，批量事件的历史采样应先于事件本身按顺序添加，时间早于上一个采样时之前的采样全部丢弃
+     *
+     * @param timeMillis 采样时间，单位毫秒，例如{@code MotionEvent.getHistoricalEventTime}
+     * @param position   采样位置，单位像素
+     */
+    public void addSample(long timeMillis, float position) {
+        if (mCount > 0) {
+            final long lastTime = mTimes[mHead];
+            //Time going back can only be a new sequence of samples
+            if (timeMillis < lastTime || timeMillis - lastTime >= ASSUME_STOPPED_MILLIS) {
+                clear();
+            }
+        }
+        mHead = (mHead + 1) % HISTORY_SIZE;
+        mTimes[mHead] = timeMillis;
+        mPositions[mHead] = position;
+        mCount = Math.min(mCount + 1, HISTORY_SIZE);
+    }
+
+    /**
+     * 计算最新采样处的速度
+     *
+     * @param units       速度的时间单位，单位毫秒，1000表示像素每秒
+     * @param maxVelocity 速度绝对值的上限
+     * @return 速度，采样不足两个时为0
+     */
+    public float computeVelocity(int units, float maxVelocity) {
+        final double velocity = STRATEGY_IMPULSE == mStrategy ? computeImpulseVelocity() : computeLeastSquaresVelocity();
+        final float scaled = (float) (velocity * units / 1000.0);
+        return Math.max(-maxVelocity, Math.min(scaled, maxVelocity));
+    }
+
+    /**
+     * @return the number of samples within the horizon, counted back from the newest one
+     */
+    private int getUsableCount() {
+        if (mCount <= 0) {
+            return 0;
+        }
+        final long newestTime = mTimes[mHead];
+        int count = 1;
+        while (count < mCount && newestTime - mTimes[indexOf(count)] <= HORIZON_MILLIS) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param age 0 for the newest sample, 1 for the one before and so on
+     */
+    private int indexOf(int age) {
+        return (mHead - age + HISTORY_SIZE) % HISTORY_SIZE;
+    }
+
+    /**
+     * Fits x = c + b * t + a * t^2 with t in seconds relative to the newest sample, the velocity
+     * is b. Falls back to a line when the parabola is degenerate, in pixels per second
+     */
+    private double computeLeastSquaresVelocity() {
+        final int count = getUsableCount();
+        if (count < 2) {
+            return 0;
+        }
+        final long newestTime = mTimes[mHead];
+        double st = 0, sx = 0, stx = 0, st2 = 0, st3 = 0, st2x = 0, st4 = 0;
+        for (int age = 0; age < count; age++) {
+            final int index = indexOf(age);
+            final double t = (mTimes[index] - newestTime) / 1000.0;
+            final double x = mPositions[index];
+            final double t2 = t * t;
+            st += t;
+            sx += x;
+            stx += t * x;
+            st2 += t2;
+            st3 += t2 * t;
+            st2x += t2 * x;
+            st4 += t2 * t2;
+        }
+        final double stt = st2 - st * st / count;
+        final double stX = stx - st * sx / count;
+        if (count > 2) {
+            final double stt2 = st3 - st * st2 / count;
+            final double st2X = st2x - st2 * sx / count;
+            final double st2t2 = st4 - st2 * st2 / count;
+            final double denominator = stt * st2t2 - stt2 * stt2;
+            if (denominator != 0) {
+                return (stX * st2t2 - st2X * stt2) / denominator;
+            }
+        }
+        return stt != 0 ? stX / stt : 0;
+    }
+
+    /**
+     * Accumulates the work of every segment from the oldest sample on, the velocity is the one of
+     * the resulting kinetic energy (unit mass), in pixels per second
+     */
+    private double computeImpulseVelocity() {
+        final int count = getUsableCount();
+        if (count < 2) {
+            return 0;
+        }
+        if (2 == count) {
+            final int newest = indexOf(0);
+            final int previous = indexOf(1);
+            final long duration = mTimes[newest] - mTimes[previous];
+            return 0 == duration ? 0 : (mPositions[newest] - mPositions[previous]) * 1000.0 / duration;
+        }
+        double work = 0;
+        for (int age = count - 1; age > 0; age--) {
+            final int previous = indexOf(age);
+            final int current = indexOf(age - 1);
+            final long duration = mTimes[current] - mTimes[previous];
+            if (0 == duration) {
+                continue;
+            }
+            final double previousVelocity = kineticEnergyToVelocity(work);
+            final double currentVelocity = (mPositions[current] - mPositions[previous]) * 1000.0 / duration;
+            work += (currentVelocity - previousVelocity) * Math.abs(currentVelocity);
+            if (count - 1 == age) {
+                //Starting from rest the first segment only accounts for half of its energy
+                work *= 0.5;
+            }
+        }
+        return kineticEnergyToVelocity(work);
+    }
+
+    private static double kineticEnergyToVelocity(double work) {
+        return Math.signum(work) * Math.sqrt(2 * Math.abs(work));
+    }
+}
@@ -16,9 +16,7 @@
 
 package ke.tang.ruler;
 
-import android.view.animation.Interpolator;
-
-class ViscousFluidInterpolator implements Interpolator {
+class ViscousFluidInterpolator implements ScrollInterpolator {
     /**
      * Controls the viscous fluid effect (how much of it).
      */
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * 缩放引擎，缩放过程中只维护一个横向变换，结束时一次性换算出新的步长与内容偏移
+ * <p>
+ * 变换把缩放开始时布局中的横坐标x映射到屏幕上的{@code focusX + scale * (x - anchorX)}，anchorX是缩放开始时焦点的横坐标，
+ * scale为当前步长与开始时步长之比。步长以浮点数累积，手指之间的距离缓慢变化时也不会丢失精度，焦点随手指移动，
+ * 焦点下的内容始终跟随手指。提交时步长保持小数，缩放结束时不会跳变，下一次缩放从该步长继续
+ */
+public final class ZoomController {
+    private float mMinStepWidth = 1;
+    private float mMaxStepWidth = Float.MAX_VALUE;
+    private float mStartStepWidth = 1;
+    private float mStepWidth = 1;
+    private float mAnchorX;
+    private float mFocusX;
+    private boolean mZooming;
+
+    public float getMinStepWidth() {
+        return mMinStepWidth;
+    }
+
+    public float getMaxStepWidth() {
+        return mMaxStepWidth;
+    }
+
+    /**
+     * 设置缩放过程中步长的范围
+     *
+     * @param minStepWidth 最小步长，不能小于1
+     * @param maxStepWidth 最大步长，不能小于最小步长
+     */
+    public void setStepWidthRange(float minStepWidth, float maxStepWidth) {
+        if (!(minStepWidth >= 1)) {
+            throw new IllegalArgumentException("最小步长不能小于1: " + minStepWidth);
+        }
+        if (!(maxStepWidth >= minStepWidth)) {
+            throw new IllegalArgumentException("最大步长: " + maxStepWidth + " 不能小于最小步长: " + minStepWidth);
+        }
+        mMinStepWidth = minStepWidth;
+        mMaxStepWidth = maxStepWidth;
+    }
+
+    /**
+     * @return 限制在缩放范围内的步长
+     */
+    public float clampStepWidth(float stepWidth) {
+        return Math.max(mMinStepWidth, Math.min(stepWidth, mMaxStepWidth));
+    }
+
+    /**
+     * 开始缩放
+     *
+     * @param stepWidth 当前布局的步长
+     * @param focusX    焦点的横坐标
+     */
+    public void begin(float stepWidth, float focusX) {
+        mStartStepWidth = Math.max(1, stepWidth);
+        mStepWidth = mStartStepWidth;
+        mAnchorX = focusX;
+        mFocusX = focusX;
+        mZooming = true;
+    }
+
+    /**
+     * 按比例缩放，焦点移动到focusX
+     *
+     * @param factor 缩放比例，一般为当前手指间距与上一次手指间距之比
+     * @param focusX 焦点的横坐标
+     */
+    public void zoomBy(float factor, float focusX) {
+        if (factor > 0) {
+            mStepWidth = clampStepWidth(mStepWidth * factor);
+        }
+        mFocusX = focusX;
+    }
+
+    /**
+     * 直接设置变换，用于缩放动画
+     *
+     * @param stepWidth 步长，不受缩放范围限制
+     * @param anchorX   开始时布局中的横坐标
+     * @param focusX    anchorX在屏幕上的横坐标
+     */
+    public void setZoom(float stepWidth, float anchorX, float focusX) {
+        mStepWidth = Math.max(1, stepWidth);
+        mAnchorX = anchorX;
+        mFocusX = focusX;
+    }
+
+    public boolean isZooming() {
+        return mZooming;
+    }
+
+    /**
+     * 结束缩放，不改变布局
+     */
+    public void end() {
+        mZooming = false;
+    }
+
+    public float getStepWidth() {
+        return mStepWidth;
+    }
+
+    /**
+     * @return 当前步长与开始时步长之比
+     */
+    public float getScale() {
+        return mStepWidth / mStartStepWidth;
+    }
+
+    /**
+     * @param x 开始时布局中的横坐标
+     * @return 屏幕上的横坐标
+     */
+    public float toScreenX(float x) {
+        return mFocusX + getScale() * (x - mAnchorX);
+    }
+
+    /**
+     * @param screenX 屏幕上的横坐标
+     * @return 开始时布局中的横坐标
+     */
+    public float toStartX(float screenX) {
+        return (screenX - mFocusX) / getScale() + mAnchorX;
+    }
+
+    /**
+     * @return 提交缩放后的步长，与缩放结束时显示的步长相同
+     */
+    public float getCommittedStepWidth() {
+        return mStepWidth;
+    }
+
+    /**
+     * 提交缩放后的内容偏移，屏幕上indicatorX处的内容保持不动
+     *
+     * @param contentOffset 开始时布局中的内容偏移
+     * @param indicatorX    指示器的横坐标，内容偏移对应的位置
+     * @return 使用{@link #getCommittedStepWidth()}布局后的内容偏移，内容之间的距离按步长等比例缩放
+     */
+    public long getCommittedContentOffset(int contentOffset, float indicatorX) {
+        final double startOffset = (double) contentOffset + toStartX(indicatorX) - indicatorX;
+        return Math.round(startOffset * getCommittedStepWidth() / mStartStepWidth);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import org.junit.Test;
+
+import static ke.tang.ruler.IndexedScaleModel.MAX_TICK_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class IndexedScaleModelTest {
+    @Test
+    public void largestRangeIsIndexed() {
+        final LogScaleModel model = new LogScaleModel(10, 0, MAX_TICK_COUNT - 1, LogScaleModel.DEFAULT_OFFSET);
+        assertEquals(MAX_TICK_COUNT - 1, model.getValueForContentOffset(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsTooManyTicks() {
+        new LogScaleModel(10, 0, MAX_TICK_COUNT, LogScaleModel.DEFAULT_OFFSET);
+    }
+
+    @Test
+    public void setRangeRejectsTooManyTicksAndKeepsRange() {
+        final PiecewiseScaleModel model = new PiecewiseScaleModel(10, 0, 100);
+        try {
+            model.setRange(Long.MIN_VALUE, Long.MAX_VALUE);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            model.setMaxValue(MAX_TICK_COUNT);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            model.setMinValue(100 - MAX_TICK_COUNT);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, model.getMinValue());
+        assertEquals(100, model.getMaxValue());
+        assertEquals(100, model.getValueForContentOffset(Integer.MAX_VALUE));
+    }
+}
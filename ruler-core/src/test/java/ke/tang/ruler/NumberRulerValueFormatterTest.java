@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberRulerValueFormatterTest {
+    @Test
+    public void zeroMultipleShowsInitialValue() {
+        assertEquals("0", new GroupedRulerValueFormatter(0, 0, Locale.US).formatValue(Long.MIN_VALUE));
+        assertEquals("7", new GroupedRulerValueFormatter(0, 7, Locale.US).formatValue(Long.MIN_VALUE));
+        assertEquals("7", new GroupedRulerValueFormatter(0, 7, Locale.US).formatValue(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void overflowFallsBackToPlainDigits() {
+        assertEquals("-9223372036854775808", new GroupedRulerValueFormatter(-1, 0, Locale.US).formatValue(Long.MIN_VALUE));
+        assertEquals("9223372036854775807", new GroupedRulerValueFormatter(2, 0, Locale.US).formatValue(Long.MAX_VALUE));
+        assertEquals("9223372036854775807", new GroupedRulerValueFormatter(1, 1, Locale.US).formatValue(Long.MAX_VALUE));
+        assertEquals("-9,223,372,036,854,775,807", new GroupedRulerValueFormatter(-1, 0, Locale.US).formatValue(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void largestFractionDigitsFitBuffer() {
+        final int fractionDigits = NumberRulerValueFormatter.MAX_FRACTION_DIGITS;
+        final DecimalRulerValueFormatter formatter = new DecimalRulerValueFormatter(fractionDigits, Locale.US);
+        final char[] buffer = new char[BufferedRulerValueFormatter.MAX_LENGTH];
+        final int length = formatter.formatValue(Long.MIN_VALUE, buffer, 0);
+        assertTrue(length <= BufferedRulerValueFormatter.MAX_LENGTH);
+        final StringBuilder expected = new StringBuilder("-0.");
+        for (int index = 19; index < fractionDigits; index++) {
+            expected.append('0');
+        }
+        expected.append("9223372036854775808");
+        assertEquals(expected.toString(), new String(buffer, 0, length));
+    }
+
+    @Test
+    public void groupedFractionFitsBuffer() {
+        //Grouping every digit is the longest integer part a pattern can produce
+        assertEquals(1, new DecimalFormat("#,0").getGroupingSize());
+        for (int fractionDigits = 0; fractionDigits <= NumberRulerValueFormatter.MAX_FRACTION_DIGITS; fractionDigits++) {
+            final DecimalFormat format = new DecimalFormat("#,0", DecimalFormatSymbols.getInstance(Locale.US));
+            final NumberRulerValueFormatter formatter = new NumberRulerValueFormatter(1, 0, fractionDigits, format, null) {
+            };
+            final char[] buffer = new char[BufferedRulerValueFormatter.MAX_LENGTH];
+            assertTrue(formatter.formatValue(Long.MIN_VALUE, buffer, 0) <= BufferedRulerValueFormatter.MAX_LENGTH);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFractionDigitsBeyondBuffer() {
+        new DecimalRulerValueFormatter(NumberRulerValueFormatter.MAX_FRACTION_DIGITS + 1, Locale.US);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeFractionDigits() {
+        new DecimalRulerValueFormatter(-1, Locale.US);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Error bounds of the generated spline tables and the float fast path of {@link OverScroller}
+ * against {@link SplineReference}, so a regeneration of the tables that leaves them fails the build.
+ */
+@RunWith(Parameterized.class)
+public class OverScrollerSplineTest {
+    private final static float FRICTION = 0.005f;
+    /**
+     * Largest relative error allowed for distance, velocity and duration conversions
+     */
+    private final static double MAX_RELATIVE_ERROR = 1E-5;
+    /**
+     * Largest difference of a fling position relative to the fling distance. The reference
+     * interpolates 100 samples solved to 1E-5, its own error is in the order of 1E-4
+     */
+    private final static double MAX_POSITION_ERROR = 2E-4;
+
+    @Parameterized.Parameters(name = "density {0}")
+    public static Collection<Object[]> densities() {
+        return Arrays.asList(new Object[][]{{1f}, {2f}, {2.625f}, {3f}});
+    }
+
+    private final ManualClock mClock = new ManualClock();
+    private final OverScroller mScroller;
+    private final SplineReference mReference;
+
+    public OverScrollerSplineTest(float density) {
+        mScroller = new OverScroller(density, mClock);
+        mScroller.setFriction(FRICTION);
+        mReference = new SplineReference(density, FRICTION);
+    }
+
+    @Test
+    public void flingDistanceWithinBounds() {
+        for (int velocity = 1; velocity <= 40000; velocity++) {
+            assertRelativeError("distance", velocity, mReference.getSplineFlingDistance(velocity),
+                    Math.abs(mScroller.getSplineFlingDistance(velocity)), 0);
+        }
+    }
+
+    @Test
+    public void flingVelocityWithinBounds() {
+        for (int velocity = 1; velocity <= 40000; velocity++) {
+            final double distance = mReference.getSplineFlingDistance(velocity);
+            //The conversion truncates to whole pixels per second
+            assertRelativeError("velocity", distance, mReference.getSplineFlingVelocity(distance),
+                    mScroller.getSplineFlingVelocity(distance), 1);
+        }
+    }
+
+    /**
+     * The spline of a fling has a fixed duration, reading it from the deprecated accessor is what
+     * lines the curve up with the reference
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void flingFollowsReferenceCurve() {
+        for (int velocity = 500; velocity <= 40000; velocity += 500) {
+            final int distance = (int) mReference.getSplineFlingDistance(velocity);
+            mClock.mTime = 0;
+            mScroller.fling(0, 0, velocity, 0, Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2, 0, 0);
+            final int finalX = mScroller.getFinalX();
+            final int duration = mScroller.getDuration();
+            assertEquals("final position of " + velocity + "px/s", distance, finalX, 1);
+            assertEquals("duration of " + velocity + "px/s", mReference.getSplineFlingDuration(velocity), duration, 1);
+            //Truncation may end the fling a millisecond apart, the curves are compared on the same span
+            for (int time = 8; time < duration; time += 8) {
+                mClock.mTime = time * 1000000L;
+                mScroller.computeScrollOffset();
+                //Plus half a pixel for rounding the position
+                assertEquals("position of " + velocity + "px/s after " + time + "ms", mReference.getPosition(finalX, duration, time),
+                        mScroller.getCurrX(), Math.abs(finalX) * MAX_POSITION_ERROR + 0.5);
+            }
+            mScroller.abortAnimation();
+        }
+    }
+
+    private static void assertRelativeError(String name, double input, double expected, double actual, double absoluteSlack) {
+        assertEquals(name + " of " + input, expected, actual, Math.abs(expected) * MAX_RELATIVE_ERROR + absoluteSlack);
+    }
+
+    private static class ManualClock implements AnimationClock {
+        private long mTime;
+
+        @Override
+        public long currentAnimationTimeMillis() {
+            return mTime / 1000000L;
+        }
+
+        @Override
+        public long currentAnimationTimeNanos() {
+            return mTime;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+/**
+ * The fling spline of {@link OverScroller} before the tables were generated at build time and the
+ * float fast path was added, solved at construction and evaluated in double precision. Shared by
+ * the error bound tests and the benchmarks comparing against it.
+ */
+public class SplineReference {
+    private final static int NB_SAMPLES = 100;
+    private final static float INFLEXION = 0.35f;
+    private final static float START_TENSION = 0.5f;
+    private final static float END_TENSION = 1.0f;
+    private final static float P1 = START_TENSION * INFLEXION;
+    private final static float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+    private final static float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+
+    private final float[] mSplinePosition = new float[NB_SAMPLES + 1];
+    private final float mFlingFriction;
+    private final float mPhysicalCoeff;
+
+    public SplineReference(float density, float friction) {
+        mFlingFriction = friction;
+        mPhysicalCoeff = 9.80665f * 39.37f * density * 160.0f * 0.25f;
+        float x_min = 0.0f;
+        for (int i = 0; i < NB_SAMPLES; i++) {
+            final float alpha = (float) i / NB_SAMPLES;
+            float x_max = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = x_min + (x_max - x_min) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) break;
+                if (tx > alpha) x_max = x;
+                else x_min = x;
+            }
+            mSplinePosition[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        mSplinePosition[NB_SAMPLES] = 1.0f;
+    }
+
+    private double getSplineDeceleration(int velocity) {
+        return Math.log(INFLEXION * Math.abs(velocity) / (mFlingFriction * mPhysicalCoeff));
+    }
+
+    public double getSplineFlingDistance(int velocity) {
+        final double l = getSplineDeceleration(velocity);
+        final double decelMinusOne = DECELERATION_RATE - 1.0;
+        return mFlingFriction * mPhysicalCoeff * Math.exp(DECELERATION_RATE / decelMinusOne * l);
+    }
+
+    public int getSplineFlingVelocity(double distance) {
+        return (int) (Math.signum(distance) * Math.exp(Math.log(Math.abs(distance) / (mFlingFriction * mPhysicalCoeff)) / (DECELERATION_RATE / (DECELERATION_RATE - 1.0))) / INFLEXION * (mFlingFriction * mPhysicalCoeff));
+    }
+
+    public int getSplineFlingDuration(int velocity) {
+        final double l = getSplineDeceleration(velocity);
+        final double decelMinusOne = DECELERATION_RATE - 1.0;
+        return (int) (1000.0 * Math.exp(l / decelMinusOne));
+    }
+
+    /**
+     * @return position of a fling of distance and duration after time, in pixels
+     */
+    public double getPosition(int distance, int duration, int time) {
+        final float t = (float) time / duration;
+        final int index = (int) (NB_SAMPLES * t);
+        if (index >= NB_SAMPLES) {
+            return distance;
+        }
+        final float t_inf = (float) index / NB_SAMPLES;
+        final float d_inf = mSplinePosition[index];
+        final float d_sup = mSplinePosition[index + 1];
+        return (d_inf + (t - t_inf) * (d_sup - d_inf) * NB_SAMPLES) * distance;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2018 TangKe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ke.tang.ruler;
+
+import org.junit.Test;
+
+import static ke.tang.ruler.VelocityEstimator.ASSUME_STOPPED_MILLIS;
+import static ke.tang.ruler.VelocityEstimator.HISTORY_SIZE;
+import static ke.tang.ruler.VelocityEstimator.HORIZON_MILLIS;
+import static ke.tang.ruler.VelocityEstimator.STRATEGY_IMPULSE;
+import static ke.tang.ruler.VelocityEstimator.STRATEGY_LSQ2;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Replays touch traces through both strategies. The expected velocities of the traces were
+ * computed outside of this class, lsq2 by solving the normal equations of the parabola in exact
+ * rational arithmetic and impulse by the energy accumulation of the platform strategy, both on the
+ * float positions the estimator stores.
+ */
+public class VelocityEstimatorTest {
+    private final static float NO_LIMIT = Float.MAX_VALUE;
+
+    //Fling with 60Hz samples and frame jitter
+    private final static long[] FLING_DOWN_TIMES = {0, 16, 35, 52, 68, 85};
+    private final static float[] FLING_DOWN_POSITIONS = {96, 106.92f, 156.66f, 220.34f, 331.58f, 428.11f};
+
+    //Fling with 120Hz samples, the first one is out of the horizon of the last one
+    private final static long[] FLING_UP_TIMES = {0, 8, 17, 25, 33, 42, 50, 58, 67, 75, 83, 92, 100, 108};
+    private final static float[] FLING_UP_POSITIONS = {812.5f, 806.25f, 795, 779.75f, 759.5f, 733, 702.25f, 665.5f,
+            622.75f, 576, 525.25f, 468.5f, 409, 345.75f};
+
+    //Finger turning back before the lift
+    private final static long[] REVERSAL_TIMES = {0, 10, 20, 30, 40, 50, 60, 70};
+    private final static float[] REVERSAL_POSITIONS = {300, 310.5f, 318, 321.5f, 320, 314.5f, 305, 291.5f};
+
+    //Slow drag with uneven sampling
+    private final static long[] SLOW_DRAG_TIMES = {0, 7, 16, 24, 31, 40, 48, 57, 64, 72, 81, 88, 96, 105, 112, 120};
+    private final static float[] SLOW_DRAG_POSITIONS = {100, 100.5f, 101.25f, 101.5f, 102.25f, 103, 103.5f, 104.25f,
+            104.75f, 105.5f, 106.25f, 106.75f, 107.5f, 108.25f, 108.5f, 109.25f};
+
+    @Test
+    public void lsq2ReplaysTraces() {
+        assertVelocity(STRATEGY_LSQ2, FLING_DOWN_TIMES, FLING_DOWN_POSITIONS, 7712.822139813314);
+        assertVelocity(STRATEGY_LSQ2, FLING_UP_TIMES, FLING_UP_POSITIONS, -8236.353251744666);
+        assertVelocity(STRATEGY_LSQ2, REVERSAL_TIMES, REVERSAL_POSITIONS, -1572.0238095238096);
+        assertVelocity(STRATEGY_LSQ2, SLOW_DRAG_TIMES, SLOW_DRAG_POSITIONS, 76.45715843965786);
+    }
+
+    @Test
+    public void impulseReplaysTraces() {
+        assertVelocity(STRATEGY_IMPULSE, FLING_DOWN_TIMES, FLING_DOWN_POSITIONS, 6008.555894061753);
+        assertVelocity(STRATEGY_IMPULSE, FLING_UP_TIMES, FLING_UP_POSITIONS, -7915.5279249487585);
+        assertVelocity(STRATEGY_IMPULSE, REVERSAL_TIMES, REVERSAL_POSITIONS, -1407.9450948408469);
+        assertVelocity(STRATEGY_IMPULSE, SLOW_DRAG_TIMES, SLOW_DRAG_POSITIONS, 99.53683637506577);
+    }
+
+    @Test
+    public void lsq2IsExactForParabola() {
+        //x = 50 + 2t - 0.01t^2 in milliseconds, 2 - 0.02 * 90 = 0.2px/ms at the newest sample
+        final VelocityEstimator estimator = new VelocityEstimator(STRATEGY_LSQ2);
+        for (int time = 0; time <= 90; time += 10) {
+            estimator.addSample(time, 50 + 2 * time - 0.01f * time * time);
+        }
+        assertEquals(200, estimator.computeVelocity(1000, NO_LIMIT), 1e-2);
+    }
+
+    @Test
+    public void impulseIsExactForConstantVelocity() {
+        final VelocityEstimator estimator = new VelocityEstimator(STRATEGY_IMPULSE);
+        for (int time = 0; time <= 60; time += 6) {
+            estimator.addSample(time, 20 - 3 * time);
+        }
+        assertEquals(-3000, estimator.computeVelocity(1000, NO_LIMIT), 1e-2);
+    }
+
+    @Test
+    public void twoSamplesGiveTheirSlope() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final VelocityEstimator estimator = new VelocityEstimator(strategy);
+            estimator.addSample(100, 10);
+            assertEquals(0, estimator.computeVelocity(1000, NO_LIMIT), 0);
+            estimator.addSample(108, 14);
+            assertEquals(500, estimator.computeVelocity(1000, NO_LIMIT), 1e-3);
+        }
+    }
+
+    @Test
+    public void pauseOfStopGapDropsOlderSamples() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final VelocityEstimator estimator = replay(strategy, FLING_DOWN_TIMES, FLING_DOWN_POSITIONS);
+            final long lastTime = FLING_DOWN_TIMES[FLING_DOWN_TIMES.length - 1];
+            estimator.addSample(lastTime + ASSUME_STOPPED_MILLIS, 428.11f);
+            assertEquals(0, estimator.computeVelocity(1000, NO_LIMIT), 0);
+            estimator.addSample(lastTime + ASSUME_STOPPED_MILLIS + 10, 438.11f);
+            assertEquals(1000, estimator.computeVelocity(1000, NO_LIMIT), 1e-3);
+        }
+    }
+
+    @Test
+    public void pauseShorterThanStopGapKeepsOlderSamples() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final VelocityEstimator estimator = replay(strategy, new long[]{0, 10}, new float[]{0, 10});
+            estimator.addSample(10 + ASSUME_STOPPED_MILLIS - 1, 10);
+            //A lone sample would give 0, the earlier motion still takes part in the estimate
+            assertFalse(0 == estimator.computeVelocity(1000, NO_LIMIT));
+        }
+    }
+
+    @Test
+    public void timeGoingBackStartsNewSequence() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final VelocityEstimator estimator = replay(strategy, FLING_DOWN_TIMES, FLING_DOWN_POSITIONS);
+            estimator.addSample(0, 0);
+            estimator.addSample(10, -5);
+            assertEquals(-500, estimator.computeVelocity(1000, NO_LIMIT), 1e-3);
+        }
+    }
+
+    @Test
+    public void samplesBeyondHorizonAreIgnored() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            //Fast motion ending just out of the horizon, followed by a slow drag
+            final VelocityEstimator estimator = new VelocityEstimator(strategy);
+            estimator.addSample(0, -1000);
+            estimator.addSample(30, 0);
+            for (int time = 30; time <= 30 + HORIZON_MILLIS; time += 10) {
+                estimator.addSample(time + 1, time);
+            }
+            final VelocityEstimator recent = new VelocityEstimator(strategy);
+            for (int time = 30; time <= 30 + HORIZON_MILLIS; time += 10) {
+                recent.addSample(time + 1, time);
+            }
+            assertEquals(recent.computeVelocity(1000, NO_LIMIT), estimator.computeVelocity(1000, NO_LIMIT), 0);
+        }
+    }
+
+    @Test
+    public void sampleAtHorizonIsUsed() {
+        final VelocityEstimator estimator = new VelocityEstimator(STRATEGY_LSQ2);
+        estimator.addSample(0, 10);
+        for (int time = 30; time <= HORIZON_MILLIS; time += 10) {
+            estimator.addSample(time, time);
+        }
+        //Dropping the sample at the horizon would leave a perfect line of 1000px/s
+        assertFalse(1000 == estimator.computeVelocity(1000, NO_LIMIT));
+    }
+
+    @Test
+    public void ringBufferKeepsNewestSamples() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final int count = 3 * HISTORY_SIZE + 7;
+            final VelocityEstimator estimator = new VelocityEstimator(strategy);
+            final VelocityEstimator newest = new VelocityEstimator(strategy);
+            for (int sample = 0; sample < count; sample++) {
+                final long time = 2 * sample;
+                final float position = (float) (400 * Math.sin(sample / 9.0));
+                estimator.addSample(time, position);
+                if (sample >= count - HISTORY_SIZE) {
+                    newest.addSample(time, position);
+                }
+            }
+            assertEquals(newest.computeVelocity(1000, NO_LIMIT), estimator.computeVelocity(1000, NO_LIMIT), 0);
+        }
+    }
+
+    @Test
+    public void equalTimestampsStayFinite() {
+        for (int strategy : new int[]{STRATEGY_LSQ2, STRATEGY_IMPULSE}) {
+            final VelocityEstimator same = replay(strategy, new long[]{50, 50, 50}, new float[]{1, 5, 9});
+            assertEquals(0, same.computeVelocity(1000, NO_LIMIT), 0);
+
+            final VelocityEstimator pair = replay(strategy, new long[]{50, 50}, new float[]{1, 5});
+            assertEquals(0, pair.computeVelocity(1000, NO_LIMIT), 0);
+
+            //A repeated timestamp inside a trace must not poison the estimate
+            final VelocityEstimator repeated = replay(strategy, new long[]{0, 10, 10, 20, 30}, new float[]{0, 10, 10, 20, 30});
+            assertEquals(1000, repeated.computeVelocity(1000, NO_LIMIT), 1e-2);
+        }
+    }
+
+    @Test
+    public void velocityIsScaledAndClamped() {
+        final VelocityEstimator estimator = replay(STRATEGY_IMPULSE, new long[]{0, 10}, new float[]{0, 50});
+        assertEquals(5, estimator.computeVelocity(1, NO_LIMIT), 1e-6);
+        assertEquals(3000, estimator.computeVelocity(1000, 3000), 0);
+        estimator.clear();
+        estimator.addSample(0, 50);
+        estimator.addSample(10, 0);
+        assertEquals(-3000, estimator.computeVelocity(1000, 3000), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownStrategy() {
+        new VelocityEstimator(2);
+    }
+
+    private static void assertVelocity(int strategy, long[] times, float[] positions, double expected) {
+        final float velocity = replay(strategy, times, positions).computeVelocity(1000, NO_LIMIT);
+        assertEquals(expected, velocity, Math.abs(expected) * 1e-5);
+    }
+
+    private static VelocityEstimator replay(int strategy, long[] times, float[] positions) {
+        final VelocityEstimator estimator = new VelocityEstimator(strategy);
+        for (int index = 0; index < times.length; index++) {
+            estimator.addSample(times[index], positions[index]);
+        }
+        return estimator;
+    }
+}